@@ -1,4 +1,8 @@
+import java.util.concurrent.CompletableFuture;
+
 public class AnimationController {
+    private static final String PLAYER_PATH = "./res/characters/MedievalKing";
+    private static final String BOT_PATH = "./res/characters/Skeleton";
     private final GameState gameState;
     private final UISettings uiSettings;
 
@@ -18,11 +22,26 @@ public class AnimationController {
     }
 
     public void playIfAudible(SoundPool p) {
-        if (uiSettings.isAudible())
+        if (p != null && uiSettings.isAudible())
             p.play();
     }
 
-    public void initializeCharacters() {
+    public CompletableFuture<Void> loadCharacters(AssetLoader loader) {
+        CompletableFuture<CharacterPack> player = loader.load("player", true, this::loadPlayer,
+                CharacterPack.preload(PLAYER_PATH, loader.executor()));
+        CompletableFuture<CharacterPack> bot = loader.load("bot", true, this::loadBot,
+                CharacterPack.preload(BOT_PATH, loader.executor()));
+        return player.thenAcceptBoth(bot, (p, b) -> {
+            synchronized (gameState) {
+                gameState.player = p;
+                gameState.bot = b;
+                setAnim(p, CharacterPack.Anim.IDLE);
+                setAnim(b, CharacterPack.Anim.IDLE);
+            }
+        });
+    }
+
+    private CharacterPack loadPlayer() {
         CharacterPack.Config heroCfg = new CharacterPack.Config()
                 .set(CharacterPack.Anim.IDLE, 8, 120, true)
                 .set(CharacterPack.Anim.ATTACK, 4, 80, false)
@@ -30,18 +49,17 @@ public class AnimationController {
                 .set(CharacterPack.Anim.DEATH, 6, 150, false)
                 .set(CharacterPack.Anim.WALK, 1, 1000, true);
 
-        gameState.player = new CharacterPack(
-                "./res/characters/MedievalKing",
+        return new CharacterPack(
+                PLAYER_PATH,
                 160, 470, false,
-                heroCfg, -20);
+                heroCfg, -20, gameState.CHAR_SCALE).bakeNow();
+    }
 
-        gameState.bot = new CharacterPack(
-                "./res/characters/Skeleton",
+    private CharacterPack loadBot() {
+        return new CharacterPack(
+                BOT_PATH,
                 920, 470, true,
-                null, 20);
-
-        setAnim(gameState.player, CharacterPack.Anim.IDLE);
-        setAnim(gameState.bot, CharacterPack.Anim.IDLE);
+                null, 20, gameState.CHAR_SCALE).bakeNow();
     }
 
     public void cycleCharacter(int dir) {
@@ -53,12 +71,14 @@ public class AnimationController {
 
     public void applySelectedCharacter() {
         CharacterPack.Config cfg = uiSettings.configFor(uiSettings.selectedCharIdx);
+        uiSettings.prefetchNeighbours(uiSettings.selectedCharIdx);
         gameState.player = new CharacterPack(
                 uiSettings.CHAR_PATHS[uiSettings.selectedCharIdx],
                 gameState.playerBaseX,
                 gameState.groundY, false,
                 cfg,
-                uiSettings.CHAR_BASELINE[uiSettings.selectedCharIdx]);
+                uiSettings.CHAR_BASELINE[uiSettings.selectedCharIdx],
+                gameState.CHAR_SCALE);
 
         setAnim(gameState.player, CharacterPack.Anim.IDLE);
     }
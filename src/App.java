@@ -9,9 +9,13 @@ public class App {
 
             GamePanel gp = new GamePanel(true);
             f.add(gp);
-            f.pack();
-            f.setLocationRelativeTo(null);
-            f.setVisible(true);
+            if (GameConfig.FULLSCREEN && FullScreen.enter(f, GameConfig.FULLSCREEN_MODE)) {
+                gp.setScaleToFit(true);
+            } else {
+                f.pack();
+                f.setLocationRelativeTo(null);
+                f.setVisible(true);
+            }
             gp.requestFocusInWindow();
         });
     }
@@ -0,0 +1,158 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AssetLoader {
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    private final ExecutorService executor;
+    private final List<CompletableFuture<?>> required = new ArrayList<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger done = new AtomicInteger();
+    private final AtomicInteger requiredTotal = new AtomicInteger();
+    private final AtomicInteger requiredDone = new AtomicInteger();
+    private final long startNs = System.nanoTime();
+    private volatile String currentTask = "";
+    private volatile boolean sealed = false;
+    private volatile String failure;
+
+    public AssetLoader() {
+        this(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+    }
+
+    public AssetLoader(int threads) {
+        AtomicInteger n = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "asset-loader-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public <T> CompletableFuture<T> load(String name, boolean isRequired, Callable<T> task,
+            CompletableFuture<?>... deps) {
+        total.incrementAndGet();
+        if (isRequired)
+            requiredTotal.incrementAndGet();
+
+        CompletableFuture<Void> after = deps.length == 0
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.allOf(deps);
+        CompletableFuture<T> f = after.thenApplyAsync(v -> call(name, isRequired, task), executor);
+        if (isRequired) {
+            synchronized (required) {
+                required.add(f);
+            }
+        }
+        return f;
+    }
+
+    public CompletableFuture<Void> run(String name, boolean isRequired, Task task, CompletableFuture<?>... deps) {
+        return load(name, isRequired, () -> {
+            task.run();
+            return null;
+        }, deps);
+    }
+
+    public <T> CompletableFuture<T> track(String name, boolean isRequired, CompletableFuture<T> task) {
+        total.incrementAndGet();
+        if (isRequired) {
+            requiredTotal.incrementAndGet();
+            synchronized (required) {
+                required.add(task);
+            }
+        }
+        long t0 = System.nanoTime();
+        task.whenComplete((v, e) -> {
+            if (e != null)
+                failed(name, isRequired, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            else
+                finish(name, isRequired, t0);
+        });
+        return task;
+    }
+
+    private <T> T call(String name, boolean isRequired, Callable<T> task) {
+        currentTask = name;
+        long t0 = System.nanoTime();
+        T result;
+        try {
+            result = task.call();
+        } catch (Exception e) {
+            failed(name, isRequired, e);
+            if (isRequired)
+                throw new CompletionException(e);
+            finish(name, false, t0);
+            return null;
+        }
+        finish(name, isRequired, t0);
+        return result;
+    }
+
+    private void failed(String name, boolean isRequired, Throwable e) {
+        System.err.println("Failed to load " + name + ": " + e.getMessage());
+        if (isRequired && failure == null)
+            failure = name + ": " + e.getMessage();
+    }
+
+    private void finish(String name, boolean isRequired, long t0) {
+        done.incrementAndGet();
+        if (isRequired)
+            requiredDone.incrementAndGet();
+        if (GameConfig.DEBUG_STATS)
+            System.out.printf("[assets] %-14s %5d ms  (%s)%n", name, (System.nanoTime() - t0) / 1_000_000,
+                    Thread.currentThread().getName());
+    }
+
+    public CompletableFuture<Void> seal() {
+        sealed = true;
+        synchronized (required) {
+            return CompletableFuture.allOf(required.toArray(new CompletableFuture<?>[0]));
+        }
+    }
+
+    public boolean isReady() {
+        return sealed && failure == null && requiredDone.get() >= requiredTotal.get();
+    }
+
+    public String failure() {
+        return failure;
+    }
+
+    public float progress() {
+        int t = requiredTotal.get();
+        return t == 0 ? 1f : requiredDone.get() / (float) t;
+    }
+
+    public int loaded() {
+        return done.get();
+    }
+
+    public int total() {
+        return total.get();
+    }
+
+    public String currentTask() {
+        return currentTask;
+    }
+
+    public long elapsedMs() {
+        return (System.nanoTime() - startNs) / 1_000_000;
+    }
+
+    public Executor executor() {
+        return executor;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,260 @@
+import javax.imageio.ImageIO;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class AssetPack {
+    public static final String RES_DIR = "./res";
+    public static final String PACK_PATH = "./res.pack";
+    private static final int MAGIC = 0x54475043;
+    private static final int VERSION = 1;
+    private static final int HEADER = 12;
+
+    private static final byte RAW = 0;
+    private static final byte IMAGE = 1;
+    private static final byte AUDIO = 2;
+
+    private static class Entry {
+        byte type;
+        int offset, length;
+        int width, height;
+        String encoding;
+        float sampleRate, frameRate;
+        int sampleBits, channels, frameSize;
+        boolean bigEndian;
+        long frames;
+    }
+
+    private static AssetPack shared;
+    private static boolean opened = false;
+
+    private final MappedByteBuffer data;
+    private final Map<String, Entry> index = new HashMap<>();
+
+    private AssetPack(MappedByteBuffer map) throws IOException {
+        map.position(0);
+        if (map.getInt() != MAGIC || map.getInt() != VERSION)
+            throw new IOException("not an asset pack");
+        int indexLen = map.getInt();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes(map, HEADER, indexLen)));
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String key = in.readUTF();
+            Entry e = new Entry();
+            e.type = in.readByte();
+            e.offset = HEADER + indexLen + in.readInt();
+            e.length = in.readInt();
+            if (e.type == IMAGE) {
+                e.width = in.readInt();
+                e.height = in.readInt();
+            } else if (e.type == AUDIO) {
+                e.encoding = in.readUTF();
+                e.sampleRate = in.readFloat();
+                e.sampleBits = in.readInt();
+                e.channels = in.readInt();
+                e.frameSize = in.readInt();
+                e.frameRate = in.readFloat();
+                e.bigEndian = in.readBoolean();
+                e.frames = in.readLong();
+            }
+            index.put(key, e);
+        }
+        data = map;
+    }
+
+    public static synchronized AssetPack shared() {
+        if (!opened) {
+            opened = true;
+            if (!Boolean.parseBoolean(System.getProperty("typing.pack", "true")))
+                return null;
+            File pack = new File(PACK_PATH);
+            if (!pack.isFile())
+                return null;
+            if (pack.lastModified() < newestModified(Paths.get(RES_DIR))) {
+                System.err.println("Asset pack is older than " + RES_DIR + ", loading loose files");
+                return null;
+            }
+            try (FileChannel ch = FileChannel.open(pack.toPath(), StandardOpenOption.READ)) {
+                shared = new AssetPack(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+            } catch (Exception e) {
+                System.err.println("Could not open asset pack: " + e.getMessage());
+            }
+        }
+        return shared;
+    }
+
+    public static boolean isPacked() {
+        return shared() != null;
+    }
+
+    public static BufferedImage image(String path) throws IOException {
+        AssetPack p = shared();
+        Entry e = p == null ? null : p.index.get(key(path));
+        if (e == null || e.type != IMAGE)
+            return ImageIO.read(new File(path));
+        int[] argb = new int[e.width * e.height];
+        p.data.slice(e.offset, e.length).asIntBuffer().get(argb);
+        BufferedImage img = new BufferedImage(e.width, e.height, BufferedImage.TYPE_INT_ARGB);
+        img.getRaster().setDataElements(0, 0, e.width, e.height, argb);
+        return img;
+    }
+
+    public static AudioInputStream audio(String path) throws Exception {
+        AssetPack p = shared();
+        Entry e = p == null ? null : p.index.get(key(path));
+        if (e == null || e.type != AUDIO)
+            return AudioSystem.getAudioInputStream(new File(path));
+        AudioFormat fmt = new AudioFormat(new AudioFormat.Encoding(e.encoding), e.sampleRate, e.sampleBits,
+                e.channels, e.frameSize, e.frameRate, e.bigEndian);
+        return new AudioInputStream(new BufferInputStream(p.data.slice(e.offset, e.length)), fmt, e.frames);
+    }
+
+    public static InputStream open(String path) throws IOException {
+        AssetPack p = shared();
+        Entry e = p == null ? null : p.index.get(key(path));
+        if (e == null || e.type != RAW)
+            return new FileInputStream(path);
+        return new ByteArrayInputStream(bytes(p.data, e.offset, e.length));
+    }
+
+    public static boolean exists(String path) {
+        AssetPack p = shared();
+        return (p != null && p.index.containsKey(key(path))) || new File(path).isFile();
+    }
+
+    private static class BufferInputStream extends InputStream {
+        private final ByteBuffer buf;
+
+        BufferInputStream(ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        @Override
+        public int read() {
+            return buf.hasRemaining() ? buf.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buf.hasRemaining())
+                return -1;
+            int n = Math.min(len, buf.remaining());
+            buf.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buf.remaining();
+        }
+    }
+
+    private static byte[] bytes(ByteBuffer map, int offset, int length) {
+        byte[] out = new byte[length];
+        map.get(offset, out);
+        return out;
+    }
+
+    private static String key(String path) {
+        return Paths.get(path).normalize().toString().replace('\\', '/');
+    }
+
+    private static long newestModified(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).mapToLong(f -> f.toFile().lastModified()).max().orElse(0);
+        } catch (IOException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    public static void build(String resDir, String packPath) throws Exception {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(Paths.get(resDir))) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(f -> !f.getFileName().toString().startsWith("."))
+                    .sorted().toList();
+        }
+
+        ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+        DataOutputStream index = new DataOutputStream(indexBytes);
+        ByteArrayOutputStream blobs = new ByteArrayOutputStream();
+        DataOutputStream blob = new DataOutputStream(blobs);
+        index.writeInt(files.size());
+        int images = 0, sounds = 0, raw = 0;
+        for (Path f : files) {
+            String name = f.getFileName().toString().toLowerCase();
+            String key = key(f.toString());
+            int offset = blob.size();
+            if (name.endsWith(".png")) {
+                BufferedImage img = ImageIO.read(f.toFile());
+                int w = img.getWidth(), h = img.getHeight();
+                for (int argb : img.getRGB(0, 0, w, h, null, 0, w))
+                    blob.writeInt(argb);
+                index.writeUTF(key);
+                index.writeByte(IMAGE);
+                index.writeInt(offset);
+                index.writeInt(blob.size() - offset);
+                index.writeInt(w);
+                index.writeInt(h);
+                images++;
+            } else if (name.endsWith(".wav")) {
+                try (AudioInputStream ais = AudioSystem.getAudioInputStream(f.toFile())) {
+                    AudioFormat fmt = ais.getFormat();
+                    byte[] pcm = ais.readAllBytes();
+                    blob.write(pcm);
+                    index.writeUTF(key);
+                    index.writeByte(AUDIO);
+                    index.writeInt(offset);
+                    index.writeInt(pcm.length);
+                    index.writeUTF(fmt.getEncoding().toString());
+                    index.writeFloat(fmt.getSampleRate());
+                    index.writeInt(fmt.getSampleSizeInBits());
+                    index.writeInt(fmt.getChannels());
+                    index.writeInt(fmt.getFrameSize());
+                    index.writeFloat(fmt.getFrameRate());
+                    index.writeBoolean(fmt.isBigEndian());
+                    index.writeLong(pcm.length / Math.max(1, fmt.getFrameSize()));
+                }
+                sounds++;
+            } else {
+                blob.write(Files.readAllBytes(f));
+                index.writeUTF(key);
+                index.writeByte(RAW);
+                index.writeInt(offset);
+                index.writeInt(blob.size() - offset);
+                raw++;
+            }
+        }
+        index.flush();
+        blob.flush();
+
+        Path out = Paths.get(packPath);
+        Path tmp = Paths.get(packPath + ".tmp");
+        try (DataOutputStream os = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            os.writeInt(MAGIC);
+            os.writeInt(VERSION);
+            os.writeInt(indexBytes.size());
+            indexBytes.writeTo(os);
+            blobs.writeTo(os);
+        }
+        Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.printf("Packed %d images, %d sounds, %d other files into %s (%d KB)%n",
+                images, sounds, raw, packPath, Files.size(out) / 1024);
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        build(args.length > 0 ? args[0] : RES_DIR, args.length > 1 ? args[1] : PACK_PATH);
+    }
+}
@@ -0,0 +1,109 @@
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+public class AudioLatency {
+    public static final String EXPORT_PATH = "./audio-latency.csv";
+
+    public static final int INPUT = 0;
+    public static final int ISSUE = 1;
+    public static final int QUEUE = 2;
+    public static final int OUTPUT = 3;
+    public static final int TOTAL = 4;
+    public static final int STAGES = 5;
+    public static final String[] STAGE_NAMES = { "os->edt", "edt->play", "play->mix", "mix->line", "key->line" };
+
+    private static final int BUCKET_US = 250;
+    private static final int BUCKETS = 400;
+
+    private static volatile long keyNs = 0;
+    private static volatile int keyInputUs = 0;
+    private static volatile Thread keyThread;
+
+    public static class Histogram {
+        private final int[] counts = new int[BUCKETS + 1];
+        private int count = 0;
+        private long sumUs = 0, maxUs = 0;
+
+        public void record(long us) {
+            if (us < 0)
+                us = 0;
+            counts[(int) Math.min(BUCKETS, us / BUCKET_US)]++;
+            count++;
+            sumUs += us;
+            if (us > maxUs)
+                maxUs = us;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public double meanMs() {
+            return count == 0 ? 0 : sumUs / 1000.0 / count;
+        }
+
+        public double maxMs() {
+            return maxUs / 1000.0;
+        }
+
+        public double percentileMs(double p) {
+            int target = (int) Math.ceil(count * p);
+            int seen = 0;
+            for (int i = 0; i <= BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= target && seen > 0)
+                    return Math.min(maxMs(), (i + 1) * BUCKET_US / 1000.0);
+            }
+            return 0;
+        }
+    }
+
+    public static void keyPressed(long whenMs, long stampNs) {
+        long stampMs = System.currentTimeMillis() - (System.nanoTime() - stampNs) / 1_000_000;
+        keyInputUs = (int) Math.max(0, (stampMs - whenMs) * 1000);
+        keyThread = Thread.currentThread();
+        keyNs = stampNs;
+    }
+
+    public static void keyDone() {
+        keyNs = 0;
+        keyThread = null;
+    }
+
+    public static long tag() {
+        return keyThread == Thread.currentThread() ? keyNs : 0;
+    }
+
+    public static int inputUs() {
+        return keyInputUs;
+    }
+
+    public static void export(AudioMixer mixer) {
+        StringBuilder table = new StringBuilder();
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(Paths.get(EXPORT_PATH), StandardCharsets.UTF_8))) {
+            w.println("sound,stage,count,mean_ms,p50_ms,p90_ms,p99_ms,max_ms");
+            table.append(String.format(Locale.US, "%-18s %-10s %6s %8s %8s %8s %8s%n",
+                    "sound", "stage", "n", "mean", "p50", "p99", "max"));
+            for (AudioMixer.Sound s : mixer.sounds()) {
+                for (int st = 0; st < STAGES; st++) {
+                    Histogram h = s.latency[st];
+                    if (h.count() == 0)
+                        continue;
+                    w.printf(Locale.US, "%s,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f%n", s.name, STAGE_NAMES[st], h.count(),
+                            h.meanMs(), h.percentileMs(0.5), h.percentileMs(0.9), h.percentileMs(0.99), h.maxMs());
+                    table.append(String.format(Locale.US, "%-18s %-10s %6d %8.2f %8.2f %8.2f %8.2f%n", s.name,
+                            STAGE_NAMES[st], h.count(), h.meanMs(), h.percentileMs(0.5), h.percentileMs(0.99),
+                            h.maxMs()));
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Could not write " + EXPORT_PATH + ": " + e.getMessage());
+            return;
+        }
+        System.out.printf(Locale.US, "Audio latency (ms, line buffer %.1f ms) written to %s%n%s", mixer.latencyMs(),
+                EXPORT_PATH, table);
+    }
+}
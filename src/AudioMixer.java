@@ -0,0 +1,380 @@
+import javax.sound.sampled.*;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AudioMixer {
+    public static final int SFX = 0;
+    public static final int MUSIC = 1;
+    public static final int TTS = 2;
+    public static final int BUSES = 3;
+
+    public static final float RATE = 44100f;
+    public static final int BLOCK_FRAMES = 256;
+    public static final int LINE_FRAMES = BLOCK_FRAMES * 4;
+    public static final int MAX_VOICES = 32;
+    private static final int QUEUE = 256;
+    private static final int OP_PLAY = 1;
+    private static final int OP_STOP = 2;
+
+    private static final AudioFormat FORMAT = new AudioFormat(RATE, 16, 2, true, false);
+    private static AudioMixer shared;
+
+    public static class Sound {
+        final int id;
+        public final String name;
+        public final AudioLatency.Histogram[] latency = new AudioLatency.Histogram[AudioLatency.STAGES];
+        final short[] pcm;
+        final int frames;
+        final int bus;
+        final int maxVoices;
+        volatile float gain = 1f;
+
+        Sound(int id, String name, short[] pcm, int bus, int maxVoices) {
+            this.id = id;
+            this.name = name;
+            this.pcm = pcm;
+            this.frames = pcm.length / 2;
+            this.bus = bus;
+            this.maxVoices = Math.max(1, maxVoices);
+            for (int i = 0; i < latency.length; i++)
+                latency[i] = new AudioLatency.Histogram();
+        }
+
+        public float durationMs() {
+            return frames * 1000f / RATE;
+        }
+    }
+
+    public interface Source {
+        void mix(float[] out, int frames, float gain);
+    }
+
+    private static class SourceSlot {
+        final Source source;
+        final int bus;
+
+        SourceSlot(Source source, int bus) {
+            this.source = source;
+            this.bus = bus;
+        }
+    }
+
+    private volatile Sound[] sounds = new Sound[0];
+    private volatile SourceSlot[] sources = new SourceSlot[0];
+    private volatile float[] busGain = { 1f, 1f, 1f };
+
+    private final Sound[] vSound = new Sound[MAX_VOICES];
+    private final int[] vPos = new int[MAX_VOICES];
+    private final long[] vStart = new long[MAX_VOICES];
+    private int voices = 0;
+    private long voiceSerial = 0;
+
+    private final AtomicIntegerArray queue = new AtomicIntegerArray(QUEUE);
+    private final long[] qKeyNs = new long[QUEUE];
+    private final long[] qIssueNs = new long[QUEUE];
+    private final int[] qInputUs = new int[QUEUE];
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head = 0;
+
+    private final float[] mix = new float[BLOCK_FRAMES * 2];
+    private final byte[] out = new byte[BLOCK_FRAMES * 4];
+    private SourceDataLine line;
+    private Thread thread;
+    private volatile boolean running = false;
+    private final AtomicInteger dropped = new AtomicInteger();
+    private volatile int stolen = 0, peakVoices = 0;
+    private long framesWritten = 0;
+
+    public static synchronized AudioMixer shared() {
+        if (shared == null) {
+            shared = new AudioMixer();
+            shared.openLine();
+        }
+        return shared;
+    }
+
+    private void openLine() {
+        try {
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            line.open(FORMAT, LINE_FRAMES * FORMAT.getFrameSize());
+            line.start();
+        } catch (Exception e) {
+            System.err.println("Audio mixer disabled: " + e.getMessage());
+            line = null;
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "audio-mixer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+        if (GameConfig.DEBUG_STATS) {
+            System.out.printf("[audio] %d Hz, block %.1f ms, line buffer %.1f ms, %d voices%n",
+                    (int) RATE, BLOCK_FRAMES * 1000f / RATE, latencyMs(), MAX_VOICES);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> AudioLatency.export(this)));
+        }
+    }
+
+    public boolean isEnabled() {
+        return line != null;
+    }
+
+    public float latencyMs() {
+        int frames = line != null ? line.getBufferSize() / FORMAT.getFrameSize() : LINE_FRAMES;
+        return (frames + BLOCK_FRAMES) * 1000f / RATE;
+    }
+
+    public synchronized Sound load(String path, int bus, int maxVoices) throws Exception {
+        short[] pcm;
+        try (AudioInputStream src = AssetPack.audio(path)) {
+            pcm = decode(src);
+        }
+        Sound[] old = sounds;
+        Sound s = new Sound(old.length, path.substring(path.lastIndexOf('/') + 1), pcm, bus, maxVoices);
+        Sound[] next = Arrays.copyOf(old, old.length + 1);
+        next[s.id] = s;
+        sounds = next;
+        return s;
+    }
+
+    static short[] decode(AudioInputStream src) throws Exception {
+        AudioFormat in = src.getFormat();
+        int ch = in.getChannels();
+        float sr = in.getSampleRate();
+        AudioFormat pcm16 = new AudioFormat(sr, 16, ch, true, false);
+        byte[] b;
+        try (AudioInputStream s16 = AudioSystem.getAudioInputStream(pcm16, src)) {
+            b = s16.readAllBytes();
+        }
+        int n = b.length / (2 * ch);
+        int outFrames = (int) ((long) n * (long) RATE / (long) sr);
+        short[] pcm = new short[outFrames * 2];
+        double step = sr / RATE;
+        for (int i = 0; i < outFrames; i++) {
+            double p = i * step;
+            int f0 = (int) p;
+            int f1 = Math.min(n - 1, f0 + 1);
+            float t = (float) (p - f0);
+            for (int c = 0; c < 2; c++) {
+                int sc = Math.min(c, ch - 1);
+                float a = sample(b, (f0 * ch + sc) * 2);
+                float z = sample(b, (f1 * ch + sc) * 2);
+                pcm[i * 2 + c] = (short) Math.round(a + (z - a) * t);
+            }
+        }
+        return pcm;
+    }
+
+    private static float sample(byte[] b, int i) {
+        return (short) ((b[i] & 0xff) | (b[i + 1] << 8));
+    }
+
+    public void play(Sound s) {
+        if (s != null)
+            offer(OP_PLAY, s.id, AudioLatency.tag());
+    }
+
+    public void stop(Sound s) {
+        if (s != null)
+            offer(OP_STOP, s.id, 0);
+    }
+
+    public synchronized void addSource(Source s, int bus) {
+        SourceSlot[] next = Arrays.copyOf(sources, sources.length + 1);
+        next[sources.length] = new SourceSlot(s, bus);
+        sources = next;
+    }
+
+    public synchronized void removeSource(Source s) {
+        sources = Arrays.stream(sources).filter(slot -> slot.source != s).toArray(SourceSlot[]::new);
+    }
+
+    public void setBusGain(int bus, float gain) {
+        float[] next = busGain.clone();
+        next[bus] = Math.max(0f, Math.min(1f, gain));
+        busGain = next;
+    }
+
+    private void offer(int op, int id, long keyNs) {
+        if (!running)
+            return;
+        while (true) {
+            long t = tail.get();
+            if (t - head >= QUEUE) {
+                dropped.incrementAndGet();
+                return;
+            }
+            if (tail.compareAndSet(t, t + 1)) {
+                int slot = (int) (t & (QUEUE - 1));
+                qKeyNs[slot] = keyNs;
+                qInputUs[slot] = keyNs != 0 ? AudioLatency.inputUs() : 0;
+                qIssueNs[slot] = System.nanoTime();
+                queue.set(slot, (op << 24) | (id + 1));
+                return;
+            }
+        }
+    }
+
+    private void drain() {
+        long h = head;
+        Sound[] all = sounds;
+        while (h < tail.get()) {
+            int slot = (int) (h & (QUEUE - 1));
+            int cmd = queue.get(slot);
+            if (cmd == 0)
+                break;
+            long keyNs = qKeyNs[slot], issueNs = qIssueNs[slot];
+            int inputUs = qInputUs[slot];
+            queue.set(slot, 0);
+            h++;
+            head = h;
+            int id = (cmd & 0xffffff) - 1;
+            if (id < 0 || id >= all.length)
+                continue;
+            if ((cmd >>> 24) == OP_PLAY) {
+                if (start(all[id]))
+                    record(all[id], keyNs, issueNs, inputUs);
+            }
+            else
+                stopAll(all[id]);
+        }
+    }
+
+    private void record(Sound s, long keyNs, long issueNs, int inputUs) {
+        long now = System.nanoTime();
+        long queuedFrames = line != null ? Math.max(0, framesWritten - line.getLongFramePosition()) : 0;
+        long outputUs = (long) (queuedFrames * 1_000_000L / RATE);
+        s.latency[AudioLatency.QUEUE].record((now - issueNs) / 1000);
+        s.latency[AudioLatency.OUTPUT].record(outputUs);
+        if (keyNs != 0) {
+            s.latency[AudioLatency.INPUT].record(inputUs);
+            s.latency[AudioLatency.ISSUE].record((issueNs - keyNs) / 1000);
+            s.latency[AudioLatency.TOTAL].record(inputUs + (now - keyNs) / 1000 + outputUs);
+        }
+    }
+
+    private boolean start(Sound s) {
+        int same = 0, oldestSame = -1, nearestEnd = -1;
+        for (int i = 0; i < voices; i++) {
+            if (vSound[i] == s) {
+                same++;
+                if (oldestSame < 0 || vStart[i] < vStart[oldestSame])
+                    oldestSame = i;
+            }
+            if (vSound[i].bus == SFX && (nearestEnd < 0
+                    || vSound[i].frames - vPos[i] < vSound[nearestEnd].frames - vPos[nearestEnd]))
+                nearestEnd = i;
+        }
+        int v;
+        if (same >= s.maxVoices) {
+            v = oldestSame;
+            stolen++;
+        } else if (voices < MAX_VOICES) {
+            v = voices++;
+        } else if (nearestEnd >= 0) {
+            v = nearestEnd;
+            stolen++;
+        } else {
+            dropped.incrementAndGet();
+            return false;
+        }
+        vSound[v] = s;
+        vPos[v] = 0;
+        vStart[v] = voiceSerial++;
+        if (voices > peakVoices)
+            peakVoices = voices;
+        return true;
+    }
+
+    private void stopAll(Sound s) {
+        for (int i = 0; i < voices;) {
+            if (vSound[i] == s)
+                remove(i);
+            else
+                i++;
+        }
+    }
+
+    private void remove(int i) {
+        int last = --voices;
+        vSound[i] = vSound[last];
+        vPos[i] = vPos[last];
+        vStart[i] = vStart[last];
+        vSound[last] = null;
+    }
+
+    void mixBlock() {
+        Arrays.fill(mix, 0f);
+        float[] buses = busGain;
+        for (int i = 0; i < voices;) {
+            Sound s = vSound[i];
+            float g = s.gain * buses[s.bus];
+            int n = Math.min(BLOCK_FRAMES, s.frames - vPos[i]);
+            if (g > 0f) {
+                short[] pcm = s.pcm;
+                int src = vPos[i] * 2;
+                for (int k = 0, end = n * 2; k < end; k++)
+                    mix[k] += pcm[src + k] * g;
+            }
+            vPos[i] += n;
+            if (vPos[i] >= s.frames)
+                remove(i);
+            else
+                i++;
+        }
+        for (SourceSlot slot : sources)
+            slot.source.mix(mix, BLOCK_FRAMES, buses[slot.bus]);
+        for (int k = 0; k < mix.length; k++) {
+            int v = (int) mix[k];
+            if (v > Short.MAX_VALUE)
+                v = Short.MAX_VALUE;
+            else if (v < Short.MIN_VALUE)
+                v = Short.MIN_VALUE;
+            out[k * 2] = (byte) v;
+            out[k * 2 + 1] = (byte) (v >> 8);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            drain();
+            mixBlock();
+            line.write(out, 0, out.length);
+            framesWritten += BLOCK_FRAMES;
+        }
+    }
+
+    void playNow(Sound s) {
+        start(s);
+    }
+
+    public Sound[] sounds() {
+        return sounds;
+    }
+
+    public int activeVoices() {
+        return voices;
+    }
+
+    public int peakVoices() {
+        return peakVoices;
+    }
+
+    public int dropped() {
+        return dropped.get();
+    }
+
+    public int stolen() {
+        return stolen;
+    }
+
+    public void close() {
+        running = false;
+        if (line != null) {
+            line.stop();
+            line.close();
+        }
+    }
+}
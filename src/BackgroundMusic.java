@@ -1,107 +1,270 @@
 import javax.sound.sampled.*;
-import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
 
-public class BackgroundMusic {
-    private Clip clip;
-    private float volume = 1.0f;
-    private boolean isPlaying = false;
-    private String currentMusic;
+public class BackgroundMusic implements AudioMixer.Source {
+    private static final AudioFormat FORMAT = new AudioFormat(AudioMixer.RATE, 16, 2, true, false);
+    private static final int RING_FRAMES = 1 << 15;
+    private static final int CHUNK_FRAMES = 2048;
+
+    private static class Track {
+        final AudioInputStream in;
+        final long totalFrames;
+        final byte[] bytes = new byte[CHUNK_FRAMES * 4];
+        long framesRead = 0;
+
+        Track(AudioInputStream in) {
+            this.in = in;
+            this.totalFrames = in.getFrameLength();
+        }
+
+        long remaining() {
+            return totalFrames == AudioSystem.NOT_SPECIFIED ? Long.MAX_VALUE : totalFrames - framesRead;
+        }
+
+        int read(short[] dst, int off, int frames) {
+            int n;
+            try {
+                n = in.readNBytes(bytes, 0, Math.min(frames, CHUNK_FRAMES) * 4) / 4;
+            } catch (Exception e) {
+                return -1;
+            }
+            for (int i = 0; i < n * 2; i++)
+                dst[off * 2 + i] = (short) ((bytes[i * 2] & 0xff) | (bytes[i * 2 + 1] << 8));
+            framesRead += n;
+            return n == 0 ? -1 : n;
+        }
+
+        void close() {
+            try {
+                in.close();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    private final List<String> playlist = new ArrayList<>();
+    private final short[] ring = new short[RING_FRAMES * 2];
+    private final short[] chunk = new short[CHUNK_FRAMES * 2];
+    private final short[] fadeChunk = new short[CHUNK_FRAMES * 2];
+    private volatile long writePos = 0, readPos = 0, flushTo = 0;
+
+    private Track current, next;
+    private int trackIndex = -1;
+    private long fadeLength = 0;
+    private final int crossfadeMs;
+
+    private volatile float volume = 1.0f;
+    private volatile boolean isPlaying = false;
+    private volatile boolean restart = false;
+    private volatile boolean closed = false;
+    private volatile String currentMusic;
+    private Thread decoder;
 
     public BackgroundMusic(String musicFile) {
-        loadMusic(musicFile);
+        this(List.of(musicFile), 0);
     }
 
-    public void loadMusic(String musicFile) {
-        stop();
+    public BackgroundMusic(List<String> tracks, int crossfadeMs) {
+        this.crossfadeMs = Math.max(0, crossfadeMs);
+        setPlaylist(tracks);
+        AudioMixer.shared().addSource(this, AudioMixer.MUSIC);
+    }
 
-        try {
-            currentMusic = musicFile;
-            AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(new File(musicFile));
-            clip = AudioSystem.getClip();
-            clip.open(audioInputStream);
+    public void loadMusic(String musicFile) {
+        setPlaylist(List.of(musicFile));
+    }
 
-            clip.loop(Clip.LOOP_CONTINUOUSLY);
-            applyVolume();
-        } catch (Exception e) {
-            System.err.println("Error loading background music: " + e.getMessage());
+    public synchronized void setPlaylist(List<String> tracks) {
+        stop();
+        playlist.clear();
+        for (String t : tracks) {
+            if (AssetPack.exists(t))
+                playlist.add(t);
+            else
+                System.err.println("Error loading background music: " + t + " not found");
         }
+        currentMusic = playlist.isEmpty() ? null : playlist.get(0);
+        restart = true;
     }
 
     public void play() {
-        if (clip != null && !isPlaying) {
-            clip.setFramePosition(0);
-            clip.start();
+        if (!isPlaying && !playlist.isEmpty()) {
+            restart = true;
             isPlaying = true;
+            startDecoder();
         }
     }
 
     public void stop() {
-        if (clip != null && isPlaying) {
-            clip.stop();
-            isPlaying = false;
-        }
+        isPlaying = false;
+        restart = true;
     }
 
     public void pause() {
-        if (clip != null && isPlaying) {
-            clip.stop();
-            isPlaying = false;
-        }
+        isPlaying = false;
     }
 
     public void resume() {
-        if (clip != null && !isPlaying) {
-            clip.start();
+        if (!isPlaying && !playlist.isEmpty()) {
             isPlaying = true;
+            startDecoder();
         }
     }
 
     public void setVolume(float volume) {
         this.volume = Math.max(0f, Math.min(1f, volume));
-        applyVolume();
     }
 
-    private void applyVolume() {
-        if (clip == null)
+    public boolean isPlaying() {
+        return isPlaying;
+    }
+
+    public String getCurrentMusic() {
+        return currentMusic;
+    }
+
+    public void close() {
+        stop();
+        closed = true;
+        AudioMixer.shared().removeSource(this);
+        if (decoder != null)
+            LockSupport.unpark(decoder);
+    }
+
+    private synchronized void startDecoder() {
+        if (decoder != null || closed)
             return;
+        decoder = new Thread(this::decode, "music-stream");
+        decoder.setDaemon(true);
+        decoder.start();
+    }
 
-        try {
-            if (clip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
-                FloatControl gainControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-                float min = gainControl.getMinimum();
-                float max = gainControl.getMaximum();
-                float dB = (volume <= 0f) ? min : (float) (20.0 * Math.log10(volume));
-                dB = Math.max(min, Math.min(max, dB));
-                gainControl.setValue(dB);
-                return;
+    @Override
+    public void mix(float[] out, int frames, float gain) {
+        if (!isPlaying || restart)
+            return;
+        long r = Math.max(readPos, flushTo);
+        int n = (int) Math.min(frames, writePos - r);
+        float g = gain * volume;
+        for (int i = 0; i < n; i++) {
+            int p = (int) ((r + i) & (RING_FRAMES - 1)) * 2;
+            out[i * 2] += ring[p] * g;
+            out[i * 2 + 1] += ring[p + 1] * g;
+        }
+        readPos = r + n;
+    }
+
+    private void decode() {
+        while (!closed) {
+            if (restart) {
+                closeTracks();
+                trackIndex = -1;
+                flushTo = writePos;
+                restart = false;
+            }
+            if (!isPlaying || RING_FRAMES - (writePos - Math.max(readPos, flushTo)) < CHUNK_FRAMES) {
+                LockSupport.parkNanos(5_000_000);
+                continue;
             }
-        } catch (Exception ignored) {
+            int n = fill(chunk, CHUNK_FRAMES);
+            if (n == 0) {
+                LockSupport.parkNanos(50_000_000);
+                continue;
+            }
+            long w = writePos;
+            for (int i = 0; i < n; i++) {
+                int p = (int) ((w + i) & (RING_FRAMES - 1)) * 2;
+                ring[p] = chunk[i * 2];
+                ring[p + 1] = chunk[i * 2 + 1];
+            }
+            writePos = w + n;
         }
+        closeTracks();
+    }
 
-        try {
-            if (clip.isControlSupported(FloatControl.Type.VOLUME)) {
-                FloatControl volumeControl = (FloatControl) clip.getControl(FloatControl.Type.VOLUME);
-                float min = volumeControl.getMinimum();
-                float max = volumeControl.getMaximum();
-                float val = min + volume * (max - min);
-                volumeControl.setValue(val);
+    private int fill(short[] dst, int frames) {
+        int done = 0;
+        int failures = 0;
+        while (done < frames && failures < playlist.size() + 1) {
+            if (current == null) {
+                current = open(advance());
+                if (current == null) {
+                    failures++;
+                    continue;
+                }
             }
-        } catch (Exception ignored) {
+            long fadeFrames = (long) (crossfadeMs * AudioMixer.RATE / 1000f);
+            if (next == null && fadeFrames > 0 && current.remaining() <= fadeFrames) {
+                next = open(peekNext());
+                fadeLength = Math.max(1, current.remaining());
+            }
+
+            int want = frames - done;
+            long left = current.remaining();
+            int r = current.read(dst, done, (int) Math.min(want, Math.max(1, left)));
+            if (r < 0) {
+                current.close();
+                current = next;
+                if (next != null)
+                    advance();
+                next = null;
+                continue;
+            }
+            if (next != null)
+                crossfade(dst, done, r, left);
+            done += r;
         }
+        return done;
     }
 
-    public boolean isPlaying() {
-        return isPlaying;
+    private void crossfade(short[] dst, int off, int frames, long remainingBefore) {
+        int got = Math.max(0, next.read(fadeChunk, 0, frames));
+        for (int i = 0; i < frames; i++) {
+            float t = 1f - Math.max(0, remainingBefore - i) / (float) fadeLength;
+            for (int c = 0; c < 2; c++) {
+                int k = (off + i) * 2 + c;
+                float b = i < got ? fadeChunk[i * 2 + c] : 0;
+                dst[k] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, dst[k] * (1f - t) + b * t));
+            }
+        }
     }
 
-    public String getCurrentMusic() {
+    private synchronized String advance() {
+        if (playlist.isEmpty())
+            return null;
+        trackIndex = (trackIndex + 1) % playlist.size();
+        currentMusic = playlist.get(trackIndex);
         return currentMusic;
     }
 
-    public void close() {
-        if (clip != null) {
-            stop();
-            clip.close();
+    private synchronized String peekNext() {
+        return playlist.isEmpty() ? null : playlist.get((trackIndex + 1) % playlist.size());
+    }
+
+    private static Track open(String path) {
+        if (path == null)
+            return null;
+        try {
+            AudioInputStream src = AssetPack.audio(path);
+            AudioFormat in = src.getFormat();
+            AudioInputStream pcm = AudioSystem.getAudioInputStream(
+                    new AudioFormat(in.getSampleRate(), 16, in.getChannels(), true, false), src);
+            if (!pcm.getFormat().matches(FORMAT))
+                pcm = AudioSystem.getAudioInputStream(FORMAT, pcm);
+            return new Track(pcm);
+        } catch (Exception e) {
+            System.err.println("Error streaming " + path + ": " + e.getMessage());
+            return null;
         }
     }
+
+    private void closeTracks() {
+        if (current != null)
+            current.close();
+        if (next != null)
+            next.close();
+        current = next = null;
+    }
 }
@@ -0,0 +1,63 @@
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.Locale;
+
+public class CharacterBenchmark {
+    private static final int SCALE = 3;
+    private static final int WARMUP_FRAMES = 2000;
+    private static final int FRAMES = 10000;
+    private static final String[] SHEETS = { "Idle.png", "Attack.png", "Take Hit.png", "Death.png" };
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        String base = args.length > 0 ? args[0] : "./res/characters/Skeleton";
+
+        ImageIO.read(new File(base, SHEETS[0]));
+        new CharacterPack(base, 0, 0, true, null, 0, SCALE).bakeNow();
+
+        long t0 = System.nanoTime();
+        BufferedImage[] sheets = new BufferedImage[SHEETS.length];
+        for (int i = 0; i < SHEETS.length; i++)
+            sheets[i] = ImageIO.read(new File(base, SHEETS[i]));
+        long legacyLoadNs = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        CharacterPack pack = new CharacterPack(base, 200, 500, true, null, 20, SCALE).bakeNow();
+        long bakedLoadNs = System.nanoTime() - t0;
+
+        BufferedImage target = Images.compatible(GameConfig.BASE_WIDTH, GameConfig.BASE_HEIGHT);
+        Graphics2D g = target.createGraphics();
+
+        int frames = 4;
+        int w = sheets[0].getWidth() / frames;
+        int h = sheets[0].getHeight();
+        for (int i = 0; i < WARMUP_FRAMES; i++)
+            drawLegacy(g, sheets[0], i % frames, w, h);
+        long start = System.nanoTime();
+        for (int i = 0; i < FRAMES; i++)
+            drawLegacy(g, sheets[0], i % frames, w, h);
+        long legacyDrawNs = (System.nanoTime() - start) / FRAMES;
+
+        for (int i = 0; i < WARMUP_FRAMES; i++)
+            pack.draw(g, SCALE);
+        start = System.nanoTime();
+        for (int i = 0; i < FRAMES; i++)
+            pack.draw(g, SCALE);
+        long bakedDrawNs = (System.nanoTime() - start) / FRAMES;
+        g.dispose();
+
+        System.out.printf(Locale.US, "load:  ImageIO only %7.2f ms, ImageIO + bake %7.2f ms%n",
+                legacyLoadNs / 1e6, bakedLoadNs / 1e6);
+        System.out.printf(Locale.US, "draw:  subimage + flipped scale %7.1f us/frame, baked blit %7.1f us/frame%n",
+                legacyDrawNs / 1000.0, bakedDrawNs / 1000.0);
+    }
+
+    private static void drawLegacy(Graphics2D g, BufferedImage sheet, int frame, int w, int h) {
+        BufferedImage f = sheet.getSubimage(frame * w, 0, w, h);
+        int drawW = f.getWidth() * SCALE;
+        int drawH = f.getHeight() * SCALE;
+        g.drawImage(f, 200 + drawW, 500 - drawH, -drawW, drawH, null);
+    }
+}
@@ -1,11 +1,22 @@
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.util.EnumMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class CharacterPack {
     public enum Anim { IDLE, WALK, ATTACK, TAKE_HIT, DEATH }
+    private static final String[] SHEETS = { "/Idle.png", "/Walk.png", "/Attack.png", "/Take Hit.png", "/Death.png" };
+    private static final BufferedImage PLACEHOLDER = dummySheet();
+    private static final TextureAtlas.Region[] PLACEHOLDER_FRAMES =
+            Sprite.slice(PLACEHOLDER, 1, 1, false, TextureAtlas.shared());
+    private static final ExecutorService BAKER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "sprite-bake");
+        t.setDaemon(true);
+        return t;
+    });
     private int baselineOffset;
     public static class AnimSpec {
         public int frames;
@@ -34,9 +45,30 @@ public class CharacterPack {
     private Sprite idle, walk, attack, hit, death;
     private Anim current;
     private boolean facingLeft;
+    private int bakedScale;
+    private volatile int requestedScale;
+    private volatile int bakeGen;
+    private volatile Baked ready;
+    private boolean stale = true;
+    private TextureAtlas atlas = new TextureAtlas(1024);
+    private final EnumMap<Anim, AnimSpec> specs = new EnumMap<>(Anim.class);
     public int x, y;
 
     private BufferedImage idleSheet, walkSheet, attackSheet, hitSheet, deathSheet;
+    private final CompletableFuture<?>[] sheets = new CompletableFuture<?>[SHEETS.length];
+    private CompletableFuture<Void> pending;
+
+    private static class Baked {
+        final int scale;
+        final TextureAtlas atlas;
+        final Sprite[] sprites;
+
+        Baked(int scale, TextureAtlas atlas, Sprite[] sprites) {
+            this.scale = scale;
+            this.atlas = atlas;
+            this.sprites = sprites;
+        }
+    }
 
     private AnimSpec defIdle   = new AnimSpec(4, 120, true);
     private AnimSpec defWalk   = new AnimSpec(4, 110, false);
@@ -52,11 +84,20 @@ public class CharacterPack {
     }
 
     public CharacterPack(String basePath, int x, int y, boolean facingLeft, Config cfg, int baselineOffset) {
-        try { idleSheet   = ImageIO.read(new File(basePath + "/Idle.png"));     } catch (Exception ignored) { idleSheet = dummySheet(); }
-        try { walkSheet   = ImageIO.read(new File(basePath + "/Walk.png"));     } catch (Exception ignored) { walkSheet = dummySheet(); }
-        try { attackSheet = ImageIO.read(new File(basePath + "/Attack.png"));   } catch (Exception ignored) { attackSheet = dummySheet(); }
-        try { hitSheet    = ImageIO.read(new File(basePath + "/Take Hit.png")); } catch (Exception ignored) { hitSheet = dummySheet(); }
-        try { deathSheet  = ImageIO.read(new File(basePath + "/Death.png"));    } catch (Exception ignored) { deathSheet = dummySheet(); }
+        this(basePath, x, y, facingLeft, cfg, baselineOffset, 1);
+    }
+
+    public CharacterPack(String basePath, int x, int y, boolean facingLeft, Config cfg, int baselineOffset, int bakedScale) {
+        this.facingLeft = facingLeft;
+        this.bakedScale = Math.max(1, bakedScale);
+        this.requestedScale = this.bakedScale;
+        SpriteCache cache = SpriteCache.shared();
+        for (int i = 0; i < SHEETS.length; i++)
+            sheets[i] = cache.request(basePath + SHEETS[i]);
+        pending = CompletableFuture.allOf(sheets);
+        assignSheets();
+        if (pending.isDone())
+            pending = null;
 
         AnimSpec sIdle   = (cfg == null) ? defIdle.copy()   : cfg.getOrDefault(Anim.IDLE,     defIdle).copy();
         AnimSpec sWalk   = (cfg == null) ? defWalk.copy()   : cfg.getOrDefault(Anim.WALK,     defWalk).copy();
@@ -64,21 +105,159 @@ public class CharacterPack {
         AnimSpec sHit    = (cfg == null) ? defHit.copy()    : cfg.getOrDefault(Anim.TAKE_HIT, defHit).copy();
         AnimSpec sDeath  = (cfg == null) ? defDeath.copy()  : cfg.getOrDefault(Anim.DEATH,    defDeath).copy();
 
-        idle   = new Sprite(idleSheet,   Math.max(1, sIdle.frames),   Math.max(1, sIdle.msPerFrame),   sIdle.loop);
-        walk   = new Sprite(walkSheet,   Math.max(1, sWalk.frames),   Math.max(1, sWalk.msPerFrame),   sWalk.loop);
-        attack = new Sprite(attackSheet, Math.max(1, sAttack.frames), Math.max(1, sAttack.msPerFrame), sAttack.loop);
-        hit    = new Sprite(hitSheet,    Math.max(1, sHit.frames),    Math.max(1, sHit.msPerFrame),    sHit.loop);
-        death  = new Sprite(deathSheet,  Math.max(1, sDeath.frames),  Math.max(1, sDeath.msPerFrame),  sDeath.loop);
+        specs.put(Anim.IDLE, sIdle);
+        specs.put(Anim.WALK, sWalk);
+        specs.put(Anim.ATTACK, sAttack);
+        specs.put(Anim.TAKE_HIT, sHit);
+        specs.put(Anim.DEATH, sDeath);
+        apply(placeholders());
 
         this.x = x;
         this.y = y;
-        this.facingLeft = facingLeft;
         this.baselineOffset = baselineOffset;
         setAnim(Anim.IDLE);
     }
 
 
-    private BufferedImage dummySheet() {
+    public static CompletableFuture<Void> preload(String basePath) {
+        return preload(basePath, null);
+    }
+
+    public static CompletableFuture<Void> preload(String basePath, Executor decoder) {
+        SpriteCache cache = SpriteCache.shared();
+        CompletableFuture<?>[] fs = new CompletableFuture<?>[SHEETS.length];
+        for (int i = 0; i < SHEETS.length; i++) {
+            String path = basePath + SHEETS[i];
+            fs[i] = decoder == null ? cache.request(path) : cache.request(path, decoder);
+        }
+        return CompletableFuture.allOf(fs);
+    }
+
+    private void assignSheets() {
+        idleSheet   = sheet(0);
+        walkSheet   = sheet(1);
+        attackSheet = sheet(2);
+        hitSheet    = sheet(3);
+        deathSheet  = sheet(4);
+    }
+
+    private BufferedImage sheet(int i) {
+        Object b = sheets[i].getNow(null);
+        return (b instanceof BufferedImage) ? (BufferedImage) b : PLACEHOLDER;
+    }
+
+    private BufferedImage[] sheetImages() {
+        return new BufferedImage[] { idleSheet, walkSheet, attackSheet, hitSheet, deathSheet };
+    }
+
+    public CharacterPack bakeNow() {
+        if (pending != null) {
+            pending.join();
+            pending = null;
+            assignSheets();
+        }
+        bakeGen++;
+        ready = null;
+        atlas = new TextureAtlas(1024);
+        apply(bakeAll(sheetImages(), specSnapshot(), bakedScale, atlas));
+        stale = false;
+        return this;
+    }
+
+    private void resolve() {
+        if (pending != null && pending.isDone()) {
+            pending = null;
+            assignSheets();
+            stale = true;
+        }
+        if (stale && pending == null) {
+            stale = false;
+            schedule(requestedScale);
+        }
+        Baked b = ready;
+        if (b != null) {
+            ready = null;
+            atlas = b.atlas;
+            bakedScale = b.scale;
+            apply(b.sprites);
+        }
+    }
+
+    public boolean isLoading() {
+        return pending != null;
+    }
+
+    private AnimSpec[] specSnapshot() {
+        AnimSpec[] out = new AnimSpec[SHEETS.length];
+        for (Anim a : Anim.values())
+            out[a.ordinal()] = specs.get(a).copy();
+        return out;
+    }
+
+    private Sprite[] placeholders() {
+        Sprite[] out = new Sprite[SHEETS.length];
+        for (Anim a : Anim.values())
+            out[a.ordinal()] = new Sprite(PLACEHOLDER_FRAMES, 1000, specs.get(a).loop);
+        return out;
+    }
+
+    private Sprite[] bakeAll(BufferedImage[] src, AnimSpec[] spec, int scale, TextureAtlas into) {
+        Sprite[] out = new Sprite[src.length];
+        for (int i = 0; i < src.length; i++)
+            out[i] = bake(src[i], spec[i].frames, spec[i].msPerFrame, spec[i].loop, scale, into);
+        return out;
+    }
+
+    private void apply(Sprite[] sprites) {
+        Sprite[] old = { idle, walk, attack, hit, death };
+        for (int i = 0; i < sprites.length; i++)
+            if (old[i] != null)
+                sprites[i].follow(old[i]);
+        idle   = sprites[Anim.IDLE.ordinal()];
+        walk   = sprites[Anim.WALK.ordinal()];
+        attack = sprites[Anim.ATTACK.ordinal()];
+        hit    = sprites[Anim.TAKE_HIT.ordinal()];
+        death  = sprites[Anim.DEATH.ordinal()];
+    }
+
+    public void rebake(int scale) {
+        scale = Math.max(1, scale);
+        if (scale == requestedScale)
+            return;
+        requestedScale = scale;
+        if (!stale && pending == null)
+            schedule(scale);
+    }
+
+    private void schedule(int scale) {
+        requestedScale = scale;
+        int gen = ++bakeGen;
+        BufferedImage[] src = sheetImages();
+        AnimSpec[] spec = specSnapshot();
+        BAKER.execute(() -> {
+            if (gen != bakeGen)
+                return;
+            TextureAtlas into = new TextureAtlas(1024);
+            Sprite[] sprites = bakeAll(src, spec, scale, into);
+            if (gen == bakeGen)
+                ready = new Baked(scale, into, sprites);
+        });
+    }
+
+    private Sprite bake(BufferedImage sheet, int frames, int msPerFrame, boolean loop, int scale, TextureAtlas into) {
+        TextureAtlas.Region[] baked = Sprite.slice(sheet, Math.max(1, frames), scale, facingLeft, into);
+        return new Sprite(baked, Math.max(1, msPerFrame), loop);
+    }
+
+    public int bakedScale() {
+        return bakedScale;
+    }
+
+    public int atlasPages() {
+        return atlas.pageCount();
+    }
+
+    private static BufferedImage dummySheet() {
         BufferedImage b = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
         Graphics2D g = b.createGraphics();
         g.setColor(new Color(255,255,255,60));
@@ -113,35 +292,65 @@ public class CharacterPack {
         };
     }
 
-    public void draw(Graphics2D g2, int scale) {
-        BufferedImage f = switch (current) {
+    private TextureAtlas.Region frame() {
+        resolve();
+        return switch (current) {
             case WALK -> walk.current();
             case ATTACK -> attack.current();
             case TAKE_HIT -> hit.current();
             case DEATH -> death.current();
             default -> idle.current();
         };
-        int drawW = f.getWidth() * scale;
-        int drawH = f.getHeight() * scale;
+    }
+
+    public void draw(PixelBlit blit, int scale) {
+        int level = blit.level(scale);
+        rebake(level);
+        TextureAtlas.Region f = frame();
+        if (level == bakedScale) {
+            blit.drawBottom(f, x, y + baselineOffset * scale);
+        } else {
+            blit.drawBottom(f, x, y + baselineOffset * scale, f.width / bakedScale * scale, f.height / bakedScale * scale);
+        }
+    }
+
+    public void draw(Graphics2D g2, int scale) {
+        TextureAtlas.Region f = frame();
         int oy = baselineOffset * scale;
 
-        if (facingLeft) {
-            g2.drawImage(f, x + drawW, y - drawH + oy, -drawW, drawH, null);
+        if (scale == bakedScale) {
+            f.draw(g2, x, y - f.height + oy);
         } else {
-            g2.drawImage(f, x, y - drawH + oy, drawW, drawH, null);
+            int drawW = f.width / bakedScale * scale;
+            int drawH = f.height / bakedScale * scale;
+            f.draw(g2, x, y - drawH + oy, drawW, drawH);
         }
     }
 
+    public void bounds(int scale, Rectangle out) {
+        resolve();
+        TextureAtlas.Region f = switch (current) {
+            case WALK -> walk.peek();
+            case ATTACK -> attack.peek();
+            case TAKE_HIT -> hit.peek();
+            case DEATH -> death.peek();
+            default -> idle.peek();
+        };
+        int drawH = f.height / bakedScale * scale;
+        int top = y - drawH + baselineOffset * scale;
+        out.setBounds(
+                x + f.offsetX * scale / bakedScale,
+                top + f.offsetY * scale / bakedScale,
+                (f.w * scale + bakedScale - 1) / bakedScale,
+                (f.h * scale + bakedScale - 1) / bakedScale);
+    }
+
     public void updateSpec(Anim anim, int frames, int msPerFrame, boolean loop) {
         frames = Math.max(1, frames);
         msPerFrame = Math.max(1, msPerFrame);
-        switch (anim) {
-            case IDLE    -> idle   = new Sprite(idleSheet,   frames, msPerFrame, loop);
-            case WALK    -> walk   = new Sprite(walkSheet,   frames, msPerFrame, loop);
-            case ATTACK  -> attack = new Sprite(attackSheet, frames, msPerFrame, loop);
-            case TAKE_HIT-> hit    = new Sprite(hitSheet,    frames, msPerFrame, loop);
-            case DEATH   -> death  = new Sprite(deathSheet,  frames, msPerFrame, loop);
-        }
+        specs.put(anim, new AnimSpec(frames, msPerFrame, loop));
+        if (!stale && pending == null)
+            schedule(requestedScale);
         if (current == anim) setAnim(anim);
     }
 }
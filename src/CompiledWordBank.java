@@ -0,0 +1,140 @@
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+public class CompiledWordBank extends AbstractList<WordEntry> implements RandomAccess {
+    private static final int MAGIC = 0x54475742;
+    private static final int VERSION = 2;
+    private static final int FIELDS = 4;
+    private static final int HEADER = 20 + FIELDS * 4;
+
+    private final MappedByteBuffer data;
+    private final int count;
+    private final long contentHash;
+    private final int[] blobBase = new int[FIELDS];
+
+    private CompiledWordBank(MappedByteBuffer data) throws IOException {
+        if (data.limit() < HEADER || data.getInt(0) != MAGIC)
+            throw new IOException("not a compiled word bank");
+        if (data.getInt(4) != VERSION)
+            throw new IOException("compiled word bank version " + data.getInt(4) + ", expected " + VERSION);
+        this.data = data;
+        this.count = data.getInt(8);
+        this.contentHash = data.getLong(12);
+        for (int f = 0; f < FIELDS; f++)
+            blobBase[f] = data.getInt(20 + f * 4);
+    }
+
+    public static CompiledWordBank open(String path) throws IOException {
+        try (FileChannel ch = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            return new CompiledWordBank(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public WordEntry get(int i) {
+        if (i < 0 || i >= count)
+            throw new IndexOutOfBoundsException(i);
+        return new WordEntry(field(0, i), field(1, i), field(2, i), field(3, i));
+    }
+
+    public String word(int i) {
+        return field(0, i);
+    }
+
+    public int[] difficultyOrder() {
+        int[] order = new int[count];
+        data.slice(HEADER + FIELDS * (count + 1) * 4, count * 4).asIntBuffer().get(order);
+        return order;
+    }
+
+    public long contentHash() {
+        return contentHash;
+    }
+
+    public static long contentHash(List<WordEntry> words) {
+        if (words instanceof CompiledWordBank bank)
+            return bank.contentHash;
+        long h = 0xcbf29ce484222325L;
+        for (WordEntry e : words) {
+            for (String field : fields(e)) {
+                for (byte b : field.getBytes(StandardCharsets.UTF_8)) {
+                    h ^= b & 0xff;
+                    h *= 0x100000001b3L;
+                }
+                h ^= 0x1f;
+                h *= 0x100000001b3L;
+            }
+        }
+        return h;
+    }
+
+    private static String[] fields(WordEntry e) {
+        return new String[] { e.word, e.display, e.pronun, e.meaning };
+    }
+
+    private String field(int f, int i) {
+        int table = HEADER + f * (count + 1) * 4;
+        int start = data.getInt(table + i * 4);
+        int end = data.getInt(table + (i + 1) * 4);
+        byte[] b = new byte[end - start];
+        data.get(blobBase[f] + start, b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    public static void compile(List<WordEntry> words, String path) throws IOException {
+        int n = words.size();
+        ByteArrayOutputStream[] blobs = new ByteArrayOutputStream[FIELDS];
+        int[][] offsets = new int[FIELDS][n + 1];
+        for (int f = 0; f < FIELDS; f++)
+            blobs[f] = new ByteArrayOutputStream();
+        for (int i = 0; i < n; i++) {
+            for (int f = 0; f < FIELDS; f++) {
+                blobs[f].write(fields(words.get(i))[f].getBytes(StandardCharsets.UTF_8));
+                offsets[f][i + 1] = blobs[f].size();
+            }
+        }
+
+        Path out = Paths.get(path);
+        Path tmp = Paths.get(path + ".tmp");
+        try (DataOutputStream os = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            os.writeInt(MAGIC);
+            os.writeInt(VERSION);
+            os.writeInt(n);
+            os.writeLong(contentHash(words));
+            int base = HEADER + FIELDS * (n + 1) * 4 + n * 4;
+            for (int f = 0; f < FIELDS; f++) {
+                os.writeInt(base);
+                base += blobs[f].size();
+            }
+            for (int f = 0; f < FIELDS; f++)
+                for (int off : offsets[f])
+                    os.writeInt(off);
+            for (int i : WordSampler.difficultyOrder(words))
+                os.writeInt(i);
+            for (int f = 0; f < FIELDS; f++)
+                blobs[f].writeTo(os);
+        }
+        Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String src = args.length > 0 ? args[0] : GameConfig.WORDS_TXT_PATH;
+        String dst = args.length > 1 ? args[1] : GameConfig.WORDS_BIN_PATH;
+        long t0 = System.nanoTime();
+        List<WordEntry> words = WordBank.parse(src);
+        compile(words, dst);
+        System.out.printf("Compiled %d words from %s into %s (%d KB) in %d ms%n", words.size(), src, dst,
+                Files.size(Paths.get(dst)) / 1024, (System.nanoTime() - t0) / 1_000_000);
+    }
+}
@@ -0,0 +1,117 @@
+import java.awt.*;
+
+public class DirtyRegions {
+    public static final int HUD = 0;
+    public static final int HEALTH = 1;
+    public static final int BONUS = 2;
+    public static final int WORD = 3;
+    public static final int FOOTER = 4;
+    public static final int BARS = 5;
+    public static final int PLAYER = 6;
+    public static final int BOT = 7;
+    public static final int EFFECTS = 8;
+    public static final int FPS = 9;
+    public static final int PROFILER = 10;
+    public static final int COUNT = 11;
+
+    private static final Color CLR_DEBUG_SLOT = new Color(255, 0, 255, 160);
+    private static final Color CLR_DEBUG_CLIP = new Color(0, 255, 255, 200);
+    private static final Stroke STROKE_DEBUG = new BasicStroke(1f);
+
+    private final Rectangle[] painted = new Rectangle[COUNT];
+    private final Rectangle[] recording = new Rectangle[COUNT];
+    private final Rectangle overflow = new Rectangle(0, 0, -1, -1);
+    private final Rectangle dirty = new Rectangle(0, 0, -1, -1);
+    private final Rectangle scratch = new Rectangle();
+    private double scale = 1.0;
+    private boolean fullRepaint = true;
+
+    public DirtyRegions() {
+        for (int i = 0; i < COUNT; i++) {
+            painted[i] = new Rectangle(0, 0, -1, -1);
+            recording[i] = new Rectangle(0, 0, -1, -1);
+        }
+    }
+
+    public void beginFrame(double scale) {
+        this.scale = scale;
+        for (Rectangle r : recording)
+            r.setBounds(0, 0, -1, -1);
+    }
+
+    public void record(int slot, int x, int y, int w, int h) {
+        if (w <= 0 || h <= 0)
+            return;
+        scratch.setBounds(
+                (int) Math.floor(x * scale) - 1,
+                (int) Math.floor(y * scale) - 1,
+                (int) Math.ceil(w * scale) + 2,
+                (int) Math.ceil(h * scale) + 2);
+        recording[slot].add(scratch);
+    }
+
+    public void record(int slot, Rectangle r) {
+        record(slot, r.x, r.y, r.width, r.height);
+    }
+
+    public void endFrame(Rectangle clip) {
+        for (int i = 0; i < COUNT; i++) {
+            Rectangle r = recording[i];
+            if (clip != null && r.width > 0 && !clip.contains(r))
+                overflow.add(r);
+            painted[i].setBounds(r);
+        }
+    }
+
+    public void invalidateAll() {
+        fullRepaint = true;
+    }
+
+    public boolean takeFullRepaint() {
+        boolean f = fullRepaint;
+        fullRepaint = false;
+        return f;
+    }
+
+    public void beginDirty() {
+        dirty.setBounds(overflow);
+        overflow.setBounds(0, 0, -1, -1);
+    }
+
+    public void addPainted(int slot) {
+        dirty.add(painted[slot]);
+    }
+
+    public void addLogical(Rectangle r) {
+        if (r.width <= 0 || r.height <= 0)
+            return;
+        scratch.setBounds(
+                (int) Math.floor(r.x * scale) - 1,
+                (int) Math.floor(r.y * scale) - 1,
+                (int) Math.ceil(r.width * scale) + 2,
+                (int) Math.ceil(r.height * scale) + 2);
+        dirty.add(scratch);
+    }
+
+    public Rectangle dirty() {
+        return dirty;
+    }
+
+    public void drawDebug(Graphics2D g) {
+        Stroke old = g.getStroke();
+        g.setStroke(STROKE_DEBUG);
+        g.setColor(CLR_DEBUG_SLOT);
+        for (Rectangle r : recording) {
+            if (r.width > 0)
+                g.drawRect(r.x, r.y, r.width - 1, r.height - 1);
+        }
+        g.setStroke(old);
+    }
+
+    public void drawClip(Graphics2D g, Rectangle clip) {
+        if (clip == null)
+            return;
+        g.setColor(CLR_DEBUG_CLIP);
+        g.drawRect(clip.x, clip.y, clip.width - 1, clip.height - 1);
+    }
+}
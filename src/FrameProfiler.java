@@ -0,0 +1,289 @@
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.awt.*;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FrameProfiler {
+    public static final int UPDATE = 0;
+    public static final int HUD = 1;
+    public static final int CHARACTERS = 2;
+    public static final int WORD = 3;
+    public static final int OVERLAY = 4;
+    public static final int EFFECTS = 5;
+    public static final int STAGES = 6;
+
+    private static final String[] STAGE_NAMES = { "update", "hud", "chars", "word", "overlay", "effects" };
+    private static final int HISTORY = 240;
+    private static final long SLOW_FRAME_NS = 1_000_000_000L / 30;
+    private static final int GRAPH_H = 60;
+    private static final int GRAPH_MAX_MS = 50;
+    private static final int PANEL_W = HISTORY + 16;
+    private static final int LINE_H = 14;
+    private static final int TTS_LINES = 4;
+    private static final int PANEL_H = GRAPH_H + 40 + (STAGES + 1 + TTS_LINES) * LINE_H;
+
+    private static final Color CLR_PANEL = new Color(0, 0, 0, 190);
+    private static final Color CLR_GRID = new Color(255, 255, 255, 50);
+    private static final Color CLR_BAR = new Color(100, 200, 255);
+    private static final Color CLR_BAR_SLOW = new Color(255, 100, 100);
+    private static final Color CLR_GC = new Color(255, 215, 0, 150);
+    private static final Color CLR_TEXT = new Color(220, 220, 220);
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+
+    public volatile boolean enabled = false;
+
+    private final long[] frameNs = new long[HISTORY];
+    private final long[][] stageNs = new long[STAGES][HISTORY];
+    private final int[] gcMs = new int[HISTORY];
+    private final long[] sorted = new long[HISTORY];
+    private final long[] current = new long[STAGES];
+    private final long[] started = new long[STAGES];
+    private final char[] text = new char[64];
+    private int head = 0;
+    private int count = 0;
+    private long lastFrameAt = 0;
+    private final AtomicInteger pendingGcMs = new AtomicInteger();
+    private boolean gcInstalled = false;
+    private TtsService tts;
+
+    public void toggle() {
+        enabled = !enabled;
+        if (enabled)
+            reset();
+    }
+
+    public void watch(TtsService tts) {
+        this.tts = tts;
+    }
+
+    public void begin(int stage) {
+        if (enabled)
+            started[stage] = System.nanoTime();
+    }
+
+    public void end(int stage) {
+        if (enabled)
+            current[stage] += System.nanoTime() - started[stage];
+    }
+
+    public void endFrame() {
+        if (!enabled)
+            return;
+        long now = System.nanoTime();
+        if (lastFrameAt != 0) {
+            frameNs[head] = now - lastFrameAt;
+            for (int s = 0; s < STAGES; s++)
+                stageNs[s][head] = current[s];
+            gcMs[head] = pendingGcMs.getAndSet(0);
+            head = (head + 1) % HISTORY;
+            if (count < HISTORY)
+                count++;
+        }
+        lastFrameAt = now;
+        Arrays.fill(current, 0);
+    }
+
+    private void reset() {
+        head = 0;
+        count = 0;
+        lastFrameAt = 0;
+        pendingGcMs.set(0);
+        Arrays.fill(current, 0);
+        if (!gcInstalled) {
+            installGcListener();
+            gcInstalled = true;
+        }
+    }
+
+    private void installGcListener() {
+        NotificationListener listener = (Notification n, Object handback) -> {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(n.getType()))
+                return;
+            GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo
+                    .from((CompositeData) n.getUserData());
+            pendingGcMs.addAndGet((int) Math.max(1, info.getGcInfo().getDuration()));
+        };
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter)
+                ((NotificationEmitter) gc).addNotificationListener(listener, null, null);
+        }
+    }
+
+    public void draw(Graphics2D g2, int x, int y) {
+        if (!enabled)
+            return;
+
+        g2.setColor(CLR_PANEL);
+        g2.fillRect(x, y, PANEL_W, PANEL_H);
+
+        int gx = x + 8, gy = y + 8;
+        g2.setColor(CLR_GRID);
+        for (int ms = 10; ms < GRAPH_MAX_MS; ms += 10) {
+            int ly = gy + GRAPH_H - ms * GRAPH_H / GRAPH_MAX_MS;
+            g2.drawLine(gx, ly, gx + HISTORY - 1, ly);
+        }
+
+        int start = (head - count + HISTORY) % HISTORY;
+        for (int i = 0; i < count; i++) {
+            int slot = (start + i) % HISTORY;
+            long ns = frameNs[slot];
+            int bx = gx + HISTORY - count + i;
+            if (gcMs[slot] > 0) {
+                g2.setColor(CLR_GC);
+                g2.fillRect(bx, gy, 1, GRAPH_H);
+            }
+            int h = (int) Math.min(GRAPH_H, ns * GRAPH_H / (GRAPH_MAX_MS * 1_000_000L));
+            g2.setColor(ns > SLOW_FRAME_NS ? CLR_BAR_SLOW : CLR_BAR);
+            g2.fillRect(bx, gy + GRAPH_H - h, 1, Math.max(1, h));
+        }
+
+        g2.setFont(FONT);
+        g2.setColor(CLR_TEXT);
+        int ty = gy + GRAPH_H + 14;
+        System.arraycopy(frameNs, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        int n = 0;
+        n = append(text, n, "p50 ");
+        n = appendMs(text, n, percentile(50));
+        n = append(text, n, "  p95 ");
+        n = appendMs(text, n, percentile(95));
+        n = append(text, n, "  p99 ");
+        n = appendMs(text, n, percentile(99));
+        g2.drawChars(text, 0, n, gx, ty);
+
+        ty += LINE_H;
+        n = append(text, 0, "gc ");
+        n = appendInt(text, n, totalGcMs());
+        n = append(text, n, "ms  max ");
+        n = appendMs(text, n, count > 0 ? sorted[count - 1] : 0);
+        g2.drawChars(text, 0, n, gx, ty);
+
+        ty += LINE_H + 4;
+        for (int s = 0; s < STAGES; s++) {
+            long sum = 0, max = 0;
+            for (int i = 0; i < count; i++) {
+                long v = stageNs[s][i];
+                sum += v;
+                if (v > max)
+                    max = v;
+            }
+            n = append(text, 0, STAGE_NAMES[s]);
+            while (n < 9)
+                text[n++] = ' ';
+            n = appendMs(text, n, count > 0 ? sum / count : 0);
+            n = append(text, n, " avg ");
+            n = appendMs(text, n, max);
+            n = append(text, n, " max");
+            g2.drawChars(text, 0, n, gx, ty);
+            ty += LINE_H;
+        }
+        if (tts != null)
+            drawTts(g2, gx, ty + 4);
+    }
+
+    private void drawTts(Graphics2D g2, int x, int y) {
+        int n = append(text, 0, tts.isFailed() ? "tts failed" : tts.isReady() ? "tts ready " : "tts ...   ");
+        n = append(text, n, " alloc ");
+        n = appendMillis(text, n, tts.allocMs());
+        n = append(text, n, " warm ");
+        n = appendMillis(text, n, tts.warmupMs());
+        n = append(text, n, "ms");
+        g2.drawChars(text, 0, n, x, y);
+
+        n = append(text, 0, "say wait ");
+        n = appendMillis(text, n, tts.lastWaitMs());
+        n = append(text, n, " first ");
+        n = appendMillis(text, n, tts.lastFirstAudioMs());
+        n = append(text, n, " total ");
+        n = appendMillis(text, n, tts.lastTotalMs());
+        n = append(text, n, "ms");
+        g2.drawChars(text, 0, n, x, y + LINE_H);
+
+        n = append(text, 0, "spoken ");
+        n = appendInt(text, n, tts.spoken());
+        n = append(text, n, "  cancelled ");
+        n = appendInt(text, n, tts.cancelled());
+        g2.drawChars(text, 0, n, x, y + 2 * LINE_H);
+
+        TtsCache cache = tts.cache();
+        if (cache == null)
+            return;
+        n = append(text, 0, "cache ");
+        n = appendInt(text, n, cache.size());
+        n = append(text, n, " clips  ");
+        n = appendInt(text, n, cache.hits());
+        n = append(text, n, " hit  ");
+        n = appendInt(text, n, cache.misses());
+        n = append(text, n, " miss");
+        g2.drawChars(text, 0, n, x, y + 3 * LINE_H);
+    }
+
+    public static int height() {
+        return PANEL_H;
+    }
+
+    public void bounds(int x, int y, Rectangle out) {
+        if (enabled)
+            out.setBounds(x, y, PANEL_W, PANEL_H);
+        else
+            out.setBounds(0, 0, -1, -1);
+    }
+
+    private long percentile(int p) {
+        if (count == 0)
+            return 0;
+        int i = (int) ((count - 1) * (long) p / 100);
+        return sorted[i];
+    }
+
+    private int totalGcMs() {
+        int total = 0;
+        for (int i = 0; i < count; i++)
+            total += gcMs[i];
+        return total;
+    }
+
+    private static int append(char[] buf, int n, String s) {
+        int len = Math.min(s.length(), buf.length - n);
+        s.getChars(0, len, buf, n);
+        return n + len;
+    }
+
+    private static int appendMs(char[] buf, int n, long ns) {
+        long tenths = (ns + 50_000L) / 100_000L;
+        n = appendInt(buf, n, (int) (tenths / 10));
+        buf[n++] = '.';
+        buf[n++] = (char) ('0' + tenths % 10);
+        return n;
+    }
+
+    private static int appendMillis(char[] buf, int n, long ms) {
+        if (ms < 0) {
+            buf[n++] = '-';
+            return n;
+        }
+        return appendInt(buf, n, (int) Math.min(Integer.MAX_VALUE, ms));
+    }
+
+    private static int appendInt(char[] buf, int n, int v) {
+        if (v == 0) {
+            buf[n++] = '0';
+            return n;
+        }
+        int digits = 0;
+        for (int t = v; t > 0; t /= 10)
+            digits++;
+        for (int i = digits - 1; i >= 0; i--) {
+            buf[n + i] = (char) ('0' + v % 10);
+            v /= 10;
+        }
+        return n + digits;
+    }
+}
@@ -0,0 +1,109 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+public class FullScreen {
+    public static boolean enter(JFrame frame, String modeSpec) {
+        if (GraphicsEnvironment.isHeadless())
+            return false;
+
+        GraphicsDevice device = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
+        if (!device.isFullScreenSupported()) {
+            System.err.println("Full-screen exclusive mode not supported, using windowed mode");
+            return false;
+        }
+
+        try {
+            frame.setUndecorated(true);
+            frame.setResizable(false);
+            frame.setIgnoreRepaint(true);
+            device.setFullScreenWindow(frame);
+
+            if (device.isDisplayChangeSupported()) {
+                int[] wanted = parseMode(modeSpec);
+                DisplayMode mode = chooseMode(device.getDisplayModes(), device.getDisplayMode(),
+                        wanted[0], wanted[1], wanted[2]);
+                if (mode != null && !mode.equals(device.getDisplayMode()))
+                    device.setDisplayMode(mode);
+            }
+
+            frame.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosing(WindowEvent e) {
+                    exit(device);
+                }
+            });
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> exit(device)));
+            frame.validate();
+            return true;
+        } catch (Exception e) {
+            System.err.println("Failed to enter full-screen mode: " + e.getMessage());
+            exit(device);
+            frame.dispose();
+            frame.setUndecorated(false);
+            frame.setResizable(true);
+            frame.setIgnoreRepaint(false);
+            return false;
+        }
+    }
+
+    public static void exit(GraphicsDevice device) {
+        try {
+            if (device.getFullScreenWindow() != null)
+                device.setFullScreenWindow(null);
+        } catch (Exception ignored) {
+        }
+    }
+
+    public static int[] parseMode(String spec) {
+        int[] out = { 0, 0, 0 };
+        if (spec == null || spec.isEmpty())
+            return out;
+        try {
+            String size = spec;
+            int at = spec.indexOf('@');
+            if (at >= 0) {
+                out[2] = Integer.parseInt(spec.substring(at + 1).trim());
+                size = spec.substring(0, at);
+            }
+            int x = size.toLowerCase().indexOf('x');
+            if (x > 0) {
+                out[0] = Integer.parseInt(size.substring(0, x).trim());
+                out[1] = Integer.parseInt(size.substring(x + 1).trim());
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid display mode: " + spec);
+            out[0] = out[1] = out[2] = 0;
+        }
+        return out;
+    }
+
+    public static DisplayMode chooseMode(DisplayMode[] modes, DisplayMode current, int width, int height, int refresh) {
+        if (modes == null || modes.length == 0)
+            return null;
+        int w = width > 0 ? width : current.getWidth();
+        int h = height > 0 ? height : current.getHeight();
+
+        DisplayMode best = null;
+        long bestScore = Long.MAX_VALUE;
+        for (DisplayMode m : modes) {
+            long sizeDiff = Math.abs(m.getWidth() - w) + Math.abs(m.getHeight() - h);
+            int hz = m.getRefreshRate();
+            long hzScore;
+            if (refresh > 0) {
+                hzScore = hz == DisplayMode.REFRESH_RATE_UNKNOWN ? 500 : Math.abs(hz - refresh);
+            } else {
+                hzScore = hz == DisplayMode.REFRESH_RATE_UNKNOWN ? 500 : 1000 - hz;
+            }
+            int depth = m.getBitDepth();
+            long depthScore = depth == DisplayMode.BIT_DEPTH_MULTI || depth >= 32 ? 0 : 1;
+            long score = sizeDiff * 1_000_000L + hzScore * 10 + depthScore;
+            if (score < bestScore) {
+                bestScore = score;
+                best = m;
+            }
+        }
+        return best;
+    }
+}
@@ -7,9 +7,18 @@ public class GameConfig {
     public static final int ROUND_SECONDS = 60;
     public static final String CHAR_SET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
     public static final String WORDS_TXT_PATH = "./res/words.txt";
+    public static final String WORDS_BIN_PATH = "./words.bin";
     public static final String CLICK_WAV_PATH = "./res/wav/click3_1.wav";
     public static final int MAX_HEALTH = 5;
     public static final int DEBOUNCE_MS = 35;
+    public static final int BASE_WIDTH = 1100;
+    public static final int BASE_HEIGHT = 620;
+    public static final boolean FULLSCREEN = Boolean.getBoolean("typing.fullscreen");
+    public static final String FULLSCREEN_MODE = System.getProperty("typing.mode", "");
+    public static final boolean ACTIVE_RENDER = FULLSCREEN || Boolean.getBoolean("typing.active");
+    public static final int UPDATES_PER_SECOND = 60;
+    public static final boolean DEBUG_STATS = Boolean.getBoolean("typing.debug");
+    public static final int TARGET_FPS = Integer.getInteger("typing.fps", 120);
 
     public enum State {
         READY, PLAYING, GAMEOVER
@@ -0,0 +1,140 @@
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+
+public class GameLoop implements Runnable {
+    private static final long STEP_NS = 1_000_000_000L / GameConfig.UPDATES_PER_SECOND;
+    private static final int MAX_STEPS_PER_FRAME = 5;
+
+    private final GamePanel gamePanel;
+    private final Canvas canvas;
+    private final long frameNs;
+    private volatile boolean running = false;
+    private Thread thread;
+
+    public GameLoop(GamePanel gamePanel, Canvas canvas, int targetFps) {
+        this.gamePanel = gamePanel;
+        this.canvas = canvas;
+        this.frameNs = targetFps > 0 ? 1_000_000_000L / targetFps : 0;
+    }
+
+    public synchronized void start() {
+        if (running)
+            return;
+        running = true;
+        thread = new Thread(this, "game-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            if (thread != Thread.currentThread()) {
+                try {
+                    thread.join(500);
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            thread = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void run() {
+        BufferStrategy bs = createStrategy();
+        if (bs == null) {
+            running = false;
+            return;
+        }
+
+        long last = System.nanoTime();
+        long acc = 0;
+        long nextFrame = last;
+
+        while (running) {
+            long now = System.nanoTime();
+            acc += now - last;
+            last = now;
+
+            gamePanel.pollInput();
+            int steps = 0;
+            while (acc >= STEP_NS && steps < MAX_STEPS_PER_FRAME) {
+                gamePanel.tick(System.currentTimeMillis());
+                acc -= STEP_NS;
+                steps++;
+            }
+            if (steps == MAX_STEPS_PER_FRAME)
+                acc = 0;
+
+            renderFrame(bs);
+            Toolkit.getDefaultToolkit().sync();
+
+            if (frameNs > 0) {
+                nextFrame += frameNs;
+                long wait = nextFrame - System.nanoTime();
+                if (wait <= 0) {
+                    nextFrame = System.nanoTime();
+                    Thread.yield();
+                } else {
+                    sleepUntil(nextFrame, wait);
+                }
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private BufferStrategy createStrategy() {
+        if (!canvas.isDisplayable())
+            return null;
+        try {
+            BufferCapabilities caps = new BufferCapabilities(
+                    new ImageCapabilities(true),
+                    new ImageCapabilities(true),
+                    BufferCapabilities.FlipContents.UNDEFINED);
+            canvas.createBufferStrategy(2, caps);
+        } catch (AWTException e) {
+            canvas.createBufferStrategy(2);
+        } catch (Exception e) {
+            System.err.println("Failed to create buffer strategy: " + e.getMessage());
+            return null;
+        }
+        return canvas.getBufferStrategy();
+    }
+
+    private void renderFrame(BufferStrategy bs) {
+        try {
+            do {
+                do {
+                    Graphics g = bs.getDrawGraphics();
+                    try {
+                        gamePanel.renderFrame((Graphics2D) g);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (bs.contentsRestored());
+                bs.show();
+            } while (bs.contentsLost());
+        } catch (IllegalStateException ignored) {
+        }
+    }
+
+    private void sleepUntil(long deadline, long wait) {
+        try {
+            long coarseMs = (wait - 1_000_000L) / 1_000_000L;
+            if (coarseMs > 0)
+                Thread.sleep(coarseMs);
+        } catch (InterruptedException e) {
+            running = false;
+            return;
+        }
+        while (System.nanoTime() < deadline)
+            Thread.onSpinWait();
+    }
+}
@@ -1,16 +1,24 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
 
-public class GamePanel extends JPanel implements ActionListener {
+public class GamePanel extends JPanel implements ActionListener, RenderTarget {
     private final Timer timer;
+    private final Canvas canvas;
+    private final GameLoop gameLoop;
     private final GameState gameState;
     private final UISettings uiSettings;
     private final GameRenderer renderer;
     private final AnimationController animController;
+    private final AssetLoader loader = new AssetLoader();
     private InputHandler inputHandler;
     private SplashScreen splashScreen;
     private boolean showingSplash;
+    private boolean scaleToFit = true;
+    private volatile long assetsReadyMs = -1;
+    private boolean firstFrameLogged = false;
 
     public GamePanel() {
         this(true);
@@ -20,73 +28,235 @@ public class GamePanel extends JPanel implements ActionListener {
         gameState = new GameState();
         uiSettings = new UISettings();
         gameState.setUISettings(uiSettings);
+        gameState.profiler.watch(uiSettings.tts);
+        if (GameConfig.DEBUG_STATS)
+            gameState.profiler.toggle();
         animController = new AnimationController(gameState, uiSettings);
         renderer = new GameRenderer(this, gameState, uiSettings);
         timer = new Timer(16, this);
 
+        if (GameConfig.ACTIVE_RENDER) {
+            canvas = new Canvas();
+            gameLoop = new GameLoop(this, canvas, GameConfig.TARGET_FPS);
+        } else {
+            canvas = null;
+            gameLoop = null;
+        }
+
         initPanel();
 
         showingSplash = showSplash;
         if (showSplash) {
-            int width = getWidth() > 0 ? getWidth() : 1100;
-            int height = getHeight() > 0 ? getHeight() : 620;
-            splashScreen = new SplashScreen(width, height);
-
-            new Thread(() -> {
-                initGameResources();
-            }).start();
-        } else {
+            int width = getWidth() > 0 ? getWidth() : GameConfig.BASE_WIDTH;
+            int height = getHeight() > 0 ? getHeight() : GameConfig.BASE_HEIGHT;
+            splashScreen = new SplashScreen(width, height, loader);
             initGameResources();
+        } else {
+            initGameResources().join();
+            inputHandler = new InputHandler(this, gameState, uiSettings, animController);
+        }
+
+        if (gameLoop == null)
+            timer.start();
+    }
+
+    public Component inputSurface() {
+        return canvas != null ? canvas : this;
+    }
+
+    public boolean isActiveRendering() {
+        return gameLoop != null;
+    }
+
+    public void setScaleToFit(boolean scaleToFit) {
+        this.scaleToFit = scaleToFit;
+        relayout();
+    }
+
+    @Override
+    public double viewScale() {
+        if (!scaleToFit || getWidth() <= 0 || getHeight() <= 0)
+            return 1.0;
+        return Math.min(getWidth() / (double) GameConfig.BASE_WIDTH,
+                getHeight() / (double) GameConfig.BASE_HEIGHT);
+    }
+
+    @Override
+    public int viewWidth() {
+        return (int) Math.round(getWidth() / viewScale());
+    }
+
+    @Override
+    public int viewHeight() {
+        return (int) Math.round(getHeight() / viewScale());
+    }
+
+    public Point toView(Point p) {
+        double s = viewScale();
+        if (s == 1.0)
+            return p;
+        return new Point((int) Math.round(p.x / s), (int) Math.round(p.y / s));
+    }
+
+    private void relayout() {
+        synchronized (gameState) {
+            uiSettings.layoutSettingsRects(viewWidth(), viewHeight());
+            if (gameState.atlas != null) {
+                gameState.updateGroundAndBases(viewWidth(), viewHeight());
+                gameState.atlas.prescale(PixelBlit.level(GameConfig.SCALE, deviceScale() * viewScale()));
+            }
+            int level = PixelBlit.level(gameState.CHAR_SCALE, deviceScale() * viewScale());
+            if (gameState.player != null)
+                gameState.player.rebake(level);
+            if (gameState.bot != null)
+                gameState.bot.rebake(level);
         }
+    }
 
-        timer.start();
+    private double deviceScale() {
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        return gc == null ? 1.0 : gc.getDefaultTransform().getScaleX();
     }
 
-    private void initGameResources() {
-        gameState.initAtlas();
-        gameState.warmupAtlas();
-        uiSettings.layoutSettingsRects(getWidth(), getHeight());
-        animController.initializeCharacters();
-        gameState.updateGroundAndBases(getWidth(), getHeight());
-        uiSettings.applyVolumeToPools(gameState);
-        inputHandler = new InputHandler(this, gameState, uiSettings, animController);
+    private CompletableFuture<Void> initGameResources() {
+        CompletableFuture<Void> ui = uiSettings.loadAssets(loader);
+        CompletableFuture<Void> state = gameState.loadAssets(loader);
+        CompletableFuture<Void> chars = animController.loadCharacters(loader);
+        loader.run("layout", true, () -> {
+            synchronized (gameState) {
+                relayout();
+                uiSettings.applyVolumeToPools(gameState);
+            }
+        }, ui, state, chars);
+
+        return loader.seal().whenComplete((v, e) -> {
+            loader.shutdown();
+            if (e != null)
+                return;
+            assetsReadyMs = loader.elapsedMs();
+            if (GameConfig.DEBUG_STATS)
+                System.out.println("Assets ready in " + assetsReadyMs + " ms (" + loader.loaded() + "/"
+                        + loader.total() + " tasks done, "
+                        + (AssetPack.isPacked() ? AssetPack.PACK_PATH : AssetPack.RES_DIR) + ")");
+        });
     }
 
     private void initPanel() {
-        setPreferredSize(new Dimension(1100, 620));
+        setPreferredSize(new Dimension(GameConfig.BASE_WIDTH, GameConfig.BASE_HEIGHT));
         setBackground(new Color(18, 20, 24));
         setFocusable(true);
         setDoubleBuffered(true);
 
+        if (canvas != null) {
+            setLayout(new BorderLayout());
+            setFocusable(false);
+            setIgnoreRepaint(true);
+            canvas.setIgnoreRepaint(true);
+            canvas.setBackground(getBackground());
+            canvas.setFocusable(true);
+            add(canvas, BorderLayout.CENTER);
+        }
+
         addComponentListener(new ComponentAdapter() {
             @Override
             public void componentResized(ComponentEvent e) {
-                uiSettings.layoutSettingsRects(getWidth(), getHeight());
-                gameState.updateGroundAndBases(getWidth(), getHeight());
-
-                if (showingSplash && splashScreen != null) {
-                    splashScreen.updateDimensions(getWidth(), getHeight());
+                synchronized (gameState) {
+                    relayout();
+                    if (showingSplash && splashScreen != null)
+                        splashScreen.updateDimensions(getWidth(), getHeight());
                 }
                 repaint();
             }
         });
     }
 
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (gameLoop != null)
+            SwingUtilities.invokeLater(gameLoop::start);
+    }
+
+    @Override
+    public void removeNotify() {
+        if (gameLoop != null)
+            gameLoop.stop();
+        super.removeNotify();
+    }
+
+    @Override
+    public boolean requestFocusInWindow() {
+        if (canvas != null)
+            return canvas.requestFocusInWindow();
+        return super.requestFocusInWindow();
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
 
-        if (showingSplash && splashScreen != null && !splashScreen.isDone()) {
-            splashScreen.draw((Graphics2D) g);
-        } else {
-            renderer.render(g);
+        if (gameLoop == null)
+            renderFrame((Graphics2D) g);
+    }
+
+    public void renderFrame(Graphics2D g) {
+        synchronized (gameState) {
+            if (gameLoop != null) {
+                g.setColor(getBackground());
+                g.fillRect(0, 0, getWidth(), getHeight());
+            }
+
+            if (showingSplash && splashScreen != null && !splashScreen.isDone()) {
+                splashScreen.draw(g);
+            } else {
+                renderer.render(g);
+                if (GameConfig.DEBUG_STATS && !firstFrameLogged) {
+                    firstFrameLogged = true;
+                    System.out.println("First interactive frame at "
+                            + ManagementFactory.getRuntimeMXBean().getUptime() + " ms after JVM start (assets ready in "
+                            + assetsReadyMs + " ms)");
+                }
+            }
+            gameState.countFrame(System.currentTimeMillis());
+            gameState.profiler.endFrame();
         }
     }
 
     @Override
     public void actionPerformed(ActionEvent e) {
         long now = System.currentTimeMillis();
+        tick(now);
+
+        Rectangle dirty = null;
+        if (!showingSplash) {
+            synchronized (gameState) {
+                dirty = renderer.dirtyRegion(now);
+            }
+        }
+        if (dirty == null) {
+            repaint();
+        } else if (!dirty.isEmpty()) {
+            repaint(dirty);
+        }
+    }
 
+    public void tick(long now) {
+        synchronized (gameState) {
+            if (inputHandler != null)
+                inputHandler.drain();
+            step(now);
+        }
+    }
+
+    public void pollInput() {
+        if (inputHandler == null)
+            return;
+        synchronized (gameState) {
+            inputHandler.drain();
+        }
+    }
+
+    private void step(long now) {
         if (showingSplash && splashScreen != null) {
             splashScreen.update();
 
@@ -97,7 +267,9 @@ public class GamePanel extends JPanel implements ActionListener {
                 }
             }
         } else {
+            gameState.profiler.begin(FrameProfiler.UPDATE);
             gameState.update(now, animController);
+            gameState.profiler.end(FrameProfiler.UPDATE);
 
             if (uiSettings.showSettings && uiSettings.sliderKnob != null && uiSettings.draggingSlider) {
                 int clamped = Math.max(
@@ -108,8 +280,6 @@ public class GamePanel extends JPanel implements ActionListener {
                 uiSettings.sliderKnob.x = clamped - uiSettings.sliderKnob.width / 2;
             }
         }
-
-        repaint();
     }
 
 }
@@ -1,9 +1,10 @@
 import java.awt.*;
+import java.awt.font.TextLayout;
 import java.awt.image.BufferedImage;
 import java.util.Locale;
 
 public class GameRenderer {
-    private final GamePanel gamePanel;
+    private final RenderTarget gamePanel;
     private final GameState gameState;
     private final UISettings uiSettings;
 
@@ -23,28 +24,161 @@ public class GameRenderer {
     private static final Color CLR_BAR_FRAME = new Color(0, 0, 0, 120);
     private static final Color CLR_PROG_BG = new Color(40, 40, 40);
     private static final Color CLR_PROG_LABEL = new Color(200, 200, 200);
+    private static final Color CLR_KEY_CURSOR = new Color(255, 215, 0, 210);
+    private static final Stroke STROKE_KEY_CURSOR = new BasicStroke(3f);
+    private static final Color CLR_OVERLAY = new Color(0, 0, 0, 160);
+    private static final Color CLR_WORD_INFO_BG = new Color(0, 0, 0, 235);
+    private static final Color CLR_SETTINGS_BG = new Color(24, 28, 34);
+    private static final Color CLR_SETTINGS_OUTLINE = new Color(255, 255, 255, 80);
+    private static final Color CLR_SETTINGS_LABEL = new Color(220, 220, 220);
+    private static final Color CLR_TOGGLE_ON = new Color(70, 170, 110);
+    private static final Color CLR_TOGGLE_OFF = new Color(90, 90, 90);
+    private static final Color CLR_SLIDER_FILL = new Color(100, 200, 255);
+    private static final String[] PERCENT_LABELS = new String[101];
+    private static final int PROFILER_X = 10;
+
+    static {
+        for (int i = 0; i <= 100; i++)
+            PERCENT_LABELS[i] = i + "%";
+    }
+
+    private final DirtyRegions dirty = new DirtyRegions();
+    private final KeystrokeTelemetry.Snapshot stats = new KeystrokeTelemetry.Snapshot();
+    private final HudText hudTime = new HudText(), hudWpm = new HudText(), hudAcc = new HudText();
+    private final HudText hudRolling = new HudText(), hudRecent = new HudText();
+    private final HudText hudWords = new HudText(), hudBonus = new HudText(), hudHealth = new HudText();
+
+    private static class HudText {
+        long key = Long.MIN_VALUE;
+        Font font;
+        TextLayout layout;
+        float width;
+
+        boolean changed(long k, Font f) {
+            if (k == key && f == font)
+                return false;
+            key = k;
+            font = f;
+            return true;
+        }
 
-    public GameRenderer(GamePanel gamePanel, GameState gameState, UISettings uiSettings) {
+        void set(String text, Graphics2D g2) {
+            layout = new TextLayout(text, font, g2.getFontRenderContext());
+            width = layout.getAdvance();
+        }
+
+        void draw(Graphics2D g2, float x, float y) {
+            layout.draw(g2, x, y);
+        }
+    }
+    private final LayerCache settingsLayer = new LayerCache();
+    private final LayerCache spaceLayer = new LayerCache();
+    private final LayerCache spacePressedLayer = new LayerCache();
+    private final LayerCache arrowLayer = new LayerCache();
+    private final LayerCache backspaceLayer = new LayerCache();
+    private final Rectangle boundsScratch = new Rectangle();
+    private final Rectangle clipScratch = new Rectangle();
+    private final PixelBlit blit = new PixelBlit();
+    private double pixelScale = 1.0;
+    private GameConfig.State paintedState = null;
+    private boolean paintedTint = false;
+    private boolean paintedSettings = false;
+    private boolean paintedSpaceOn = false;
+    private boolean paintedSpaceHeld = false;
+    private int paintedFps = -1;
+    private int paintedW = -1, paintedH = -1;
+
+    public GameRenderer(RenderTarget gamePanel, GameState gameState, UISettings uiSettings) {
         this.gamePanel = gamePanel;
         this.gameState = gameState;
         this.uiSettings = uiSettings;
     }
 
+    public void invalidateAll() {
+        dirty.invalidateAll();
+    }
+
+    public Rectangle dirtyRegion(long now) {
+        boolean tinted = now < gameState.flashUntil || now < gameState.bonusUntil;
+        boolean full = dirty.takeFullRepaint()
+                || uiSettings.showSettings || paintedSettings
+                || tinted || paintedTint
+                || gameState.state != paintedState
+                || gamePanel.getWidth() != paintedW || gamePanel.getHeight() != paintedH;
+        if (full)
+            return null;
+
+        dirty.beginDirty();
+        addCharacterBounds(DirtyRegions.PLAYER, gameState.player, now);
+        addCharacterBounds(DirtyRegions.BOT, gameState.bot, now);
+
+        dirty.addPainted(DirtyRegions.EFFECTS);
+        gameState.effects.bounds(boundsScratch);
+        dirty.addLogical(boundsScratch);
+
+        if (gameState.state == GameConfig.State.PLAYING) {
+            dirty.addPainted(DirtyRegions.HUD);
+            dirty.addPainted(DirtyRegions.HEALTH);
+            dirty.addPainted(DirtyRegions.BONUS);
+            dirty.addPainted(DirtyRegions.WORD);
+            dirty.addPainted(DirtyRegions.BARS);
+        } else if (gameState.spaceAnimOn != paintedSpaceOn || gameState.isSpaceHeld != paintedSpaceHeld) {
+            dirty.addPainted(DirtyRegions.FOOTER);
+        }
+
+        if (gameState.fps != paintedFps)
+            dirty.addPainted(DirtyRegions.FPS);
+
+        dirty.addPainted(DirtyRegions.PROFILER);
+        gameState.profiler.bounds(PROFILER_X, profilerY(), boundsScratch);
+        dirty.addLogical(boundsScratch);
+
+        return dirty.dirty();
+    }
+
+    private void addCharacterBounds(int slot, CharacterPack c, long now) {
+        dirty.addPainted(slot);
+        if (c == null)
+            return;
+        c.bounds(gameState.CHAR_SCALE, boundsScratch);
+        if (now < gameState.shakeUntil)
+            boundsScratch.grow(gameState.shakeAmp, gameState.shakeAmp);
+        dirty.addLogical(boundsScratch);
+    }
+
+    private void recordCharacter(int slot, CharacterPack c, int shake) {
+        c.bounds(gameState.CHAR_SCALE, boundsScratch);
+        boundsScratch.grow(shake, shake);
+        dirty.record(slot, boundsScratch);
+    }
+
     public void render(Graphics g) {
         Graphics2D g2 = (Graphics2D) g.create();
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        TextureAtlas.beginFrame();
+        double viewScale = gamePanel.viewScale();
+        pixelScale = g2.getTransform().getScaleX() * viewScale;
+        dirty.beginFrame(viewScale);
+        clipScratch.setBounds(0, 0, gamePanel.getWidth(), gamePanel.getHeight());
+        Rectangle clip = g.getClipBounds(clipScratch);
+        if (viewScale != 1.0)
+            g2.scale(viewScale, viewScale);
         long now = System.currentTimeMillis();
+        boolean tinted = now < gameState.flashUntil || now < gameState.bonusUntil;
         if (now < gameState.flashUntil) {
             g2.setColor(CLR_FLASH);
-            g2.fillRect(0, 0, gamePanel.getWidth(), gamePanel.getHeight());
+            g2.fillRect(0, 0, gamePanel.viewWidth(), gamePanel.viewHeight());
         }
 
         if (now < gameState.bonusUntil) {
             g2.setColor(CLR_BONUS_TINT);
-            g2.fillRect(0, 0, gamePanel.getWidth(), gamePanel.getHeight());
+            g2.fillRect(0, 0, gamePanel.viewWidth(), gamePanel.viewHeight());
         }
 
+        FrameProfiler profiler = gameState.profiler;
+        profiler.begin(FrameProfiler.HUD);
         drawHUD(g2, now);
+        profiler.end(FrameProfiler.HUD);
 
         int shakeX = 0, shakeY = 0;
         if (now < gameState.shakeUntil) {
@@ -53,28 +187,71 @@ public class GameRenderer {
         }
         g2.translate(shakeX, shakeY);
 
+        int shake = now < gameState.shakeUntil ? gameState.shakeAmp : 0;
+        profiler.begin(FrameProfiler.CHARACTERS);
+        blit.begin(g2);
         try {
-            gameState.bot.draw(g2, gameState.CHAR_SCALE);
+            gameState.bot.draw(blit, gameState.CHAR_SCALE);
+            recordCharacter(DirtyRegions.BOT, gameState.bot, shake);
         } catch (Throwable ignored) {
         }
 
         try {
-            gameState.player.draw(g2, gameState.CHAR_SCALE);
+            gameState.player.draw(blit, gameState.CHAR_SCALE);
+            recordCharacter(DirtyRegions.PLAYER, gameState.player, shake);
         } catch (Throwable ignored) {
         }
+        blit.end();
 
+        profiler.end(FrameProfiler.CHARACTERS);
         g2.translate(-shakeX, -shakeY);
 
+        profiler.begin(FrameProfiler.WORD);
         drawWord(g2, now);
+        profiler.end(FrameProfiler.WORD);
         drawFooterInfo(g2);
         if (gameState.state == GameConfig.State.PLAYING)
             drawBars(g2);
-        gameState.hit.draw(g2);
-
-        if (uiSettings.showSettings)
+        profiler.begin(FrameProfiler.EFFECTS);
+        gameState.effects.draw(g2, blit);
+        profiler.end(FrameProfiler.EFFECTS);
+        gameState.effects.bounds(boundsScratch);
+        dirty.record(DirtyRegions.EFFECTS, boundsScratch);
+
+        if (uiSettings.showSettings) {
+            profiler.begin(FrameProfiler.OVERLAY);
             drawSettingsOverlay(g2);
+            profiler.end(FrameProfiler.OVERLAY);
+        }
+
+        if (profiler.enabled) {
+            profiler.draw(g2, PROFILER_X, profilerY());
+            profiler.bounds(PROFILER_X, profilerY(), boundsScratch);
+            dirty.record(DirtyRegions.PROFILER, boundsScratch);
+        }
 
         g2.dispose();
+
+        dirty.endFrame(clip);
+        paintedState = gameState.state;
+        paintedTint = tinted;
+        paintedSettings = uiSettings.showSettings;
+        paintedSpaceOn = gameState.spaceAnimOn;
+        paintedSpaceHeld = gameState.isSpaceHeld;
+        paintedFps = gameState.fps;
+        paintedW = gamePanel.getWidth();
+        paintedH = gamePanel.getHeight();
+
+        if (GameConfig.DEBUG_STATS) {
+            Graphics2D dg = (Graphics2D) g.create();
+            dirty.drawDebug(dg);
+            dirty.drawClip(dg, clip);
+            dg.dispose();
+        }
+    }
+
+    private int profilerY() {
+        return gamePanel.viewHeight() - 40 - FrameProfiler.height();
     }
 
     private void drawHUD(Graphics2D g2, long now) {
@@ -83,49 +260,72 @@ public class GameRenderer {
                 : GameConfig.ROUND_SECONDS * 1000L;
         int mm = (int) (left / 1000) / 60;
         int ss = (int) (left / 1000) % 60;
-        double minutes = gameState.state == GameConfig.State.PLAYING
-                ? Math.max(1e-6, (now - gameState.startMs) / 60000.0)
-                : 0;
-        double wpm = minutes > 0 ? (gameState.correct / 5.0) / minutes : 0.0;
-        double acc = gameState.totalTyped == 0
-                ? 100.0
-                : 100.0 * (gameState.totalTyped - gameState.mistakes) / gameState.totalTyped;
 
         if (gameState.state == GameConfig.State.PLAYING) {
-            drawGameHUD(g2, mm, ss, wpm, acc);
+            gameState.telemetry.snapshot(System.nanoTime(), stats);
+            drawGameHUD(g2, mm, ss, stats);
             drawHealthBar(g2);
             drawBonusTimer(g2, now);
         }
 
         g2.setFont(uiSettings.fontSmall12);
         g2.setColor(CLR_HUD_TEXT);
-        g2.drawString("FPS: " + gameState.fps, gamePanel.getWidth() - 75, gamePanel.getHeight() - 20);
-        g2.drawString("@Hex | version dev.", 10, gamePanel.getHeight() - 20);
+        g2.drawString("FPS: " + gameState.fps, gamePanel.viewWidth() - 75, gamePanel.viewHeight() - 20);
+        dirty.record(DirtyRegions.FPS, gamePanel.viewWidth() - 80, gamePanel.viewHeight() - 100, 80, 90);
+        if (GameConfig.DEBUG_STATS) {
+            g2.drawString("SURF: " + TextureAtlas.surfacesLastFrame(), gamePanel.viewWidth() - 75,
+                    gamePanel.viewHeight() - 40);
+            g2.drawString(String.format(Locale.US, "TXT: %.0f%%", uiSettings.wordLayouts.hitRate() * 100),
+                    gamePanel.viewWidth() - 75, gamePanel.viewHeight() - 60);
+            g2.drawString("LYR: " + layerRebuilds(), gamePanel.viewWidth() - 75, gamePanel.viewHeight() - 80);
+        }
+        g2.drawString("@Hex | version dev.", 10, gamePanel.viewHeight() - 20);
         g2.setFont(uiSettings.fontPlain6);
     }
 
-    private void drawGameHUD(Graphics2D g2, int mm, int ss, double wpm, double acc) {
-        g2.setFont(uiSettings.fontBold16);
+    private void drawGameHUD(Graphics2D g2, int mm, int ss, KeystrokeTelemetry.Snapshot s) {
+        dirty.record(DirtyRegions.HUD, 20, 20, 320, 140);
+        Font big = uiSettings.fontBold16, small = uiSettings.fontSmall11;
+        if (hudTime.changed(mm * 60L + ss, big))
+            hudTime.set(String.format("เวลา: %02d:%02d", mm, ss), g2);
+        if (hudWpm.changed(Math.round(s.wpm * 10), big))
+            hudWpm.set(String.format(Locale.US, "WPM: %.1f", s.wpm), g2);
+        if (hudAcc.changed(Math.round(s.accuracy), big))
+            hudAcc.set(String.format(Locale.US, "ความแม่นยำ: %.0f%%", s.accuracy), g2);
+        if (hudWords.changed(gameState.wordsCompleted, big))
+            hudWords.set(String.format("คำที่ทำได้: %d", gameState.wordsCompleted), g2);
+        int recentKeys = Math.min(s.keys, KeystrokeTelemetry.ACCURACY_WINDOW);
+        if (hudRolling.changed(Math.round(s.wpm5s) << 42 | Math.round(s.wpm15s) << 21 | Math.round(s.burstWpm), small))
+            hudRolling.set(String.format(Locale.US, "5s: %.0f  15s: %.0f  peak: %.0f", s.wpm5s, s.wpm15s,
+                    s.burstWpm), g2);
+        if (hudRecent.changed((long) recentKeys << 32 | Math.round(s.recentAccuracy), small))
+            hudRecent.set(String.format(Locale.US, "last %d: %.0f%%", recentKeys, s.recentAccuracy), g2);
+
         g2.setColor(CLR_TIME);
-        g2.drawString(String.format("เวลา: %02d:%02d", mm, ss), 28, 42);
+        hudTime.draw(g2, 28, 42);
         g2.setColor(CLR_WPM);
-        g2.drawString(String.format(Locale.US, "WPM: %.1f", wpm), 28, 70);
+        hudWpm.draw(g2, 28, 70);
+        hudRolling.draw(g2, 28 + hudWpm.width + 10, 70);
         g2.setColor(CLR_ACC);
-        g2.drawString(String.format(Locale.US, "ความแม่นยำ: %.0f%%", acc), 28, 95);
+        hudAcc.draw(g2, 28, 95);
+        hudRecent.draw(g2, 28 + hudAcc.width + 10, 95);
         g2.setColor(CLR_DONE);
-        g2.drawString(String.format("คำที่ทำได้: %d", gameState.wordsCompleted), 28, 120);
+        hudWords.draw(g2, 28, 120);
         if (gameState.bonusStreak > 0) {
+            if (hudBonus.changed(gameState.bonusStreak, big))
+                hudBonus.set(String.format("โบนัส: x%d", gameState.bonusStreak), g2);
             g2.setColor(CLR_BONUS);
-            g2.drawString(String.format("โบนัส: x%d", gameState.bonusStreak), 28, 148);
+            hudBonus.draw(g2, 28, 148);
         }
     }
 
     private void drawHealthBar(Graphics2D g2) {
-        int barX = gamePanel.getWidth() - 220;
+        int barX = gamePanel.viewWidth() - 220;
         int barY = 20;
         int barW = 180;
         int barH = 20;
 
+        dirty.record(DirtyRegions.HEALTH, barX - 4, barY - 4, barW + 8, barH + 8);
         g2.setColor(CLR_HUD_PANEL);
         g2.fillRoundRect(barX - 4, barY - 4, barW + 8, barH + 8, 12, 12);
         g2.setColor(new Color(60, 60, 60));
@@ -147,10 +347,9 @@ public class GameRenderer {
 
         g2.setFont(uiSettings.fontSmall12);
         g2.setColor(CLR_HUD_TEXT);
-        String healthText = String.format("HP %d/%d", gameState.health, GameConfig.MAX_HEALTH);
-        FontMetrics fm = g2.getFontMetrics();
-        int textX = barX + (barW - fm.stringWidth(healthText)) / 2;
-        g2.drawString(healthText, textX, barY + 16);
+        if (hudHealth.changed(gameState.health, uiSettings.fontSmall12))
+            hudHealth.set(String.format("HP %d/%d", gameState.health, GameConfig.MAX_HEALTH), g2);
+        hudHealth.draw(g2, barX + (barW - hudHealth.width) / 2, barY + 16);
     }
 
     private void drawBonusTimer(Graphics2D g2, long now) {
@@ -162,11 +361,12 @@ public class GameRenderer {
             return;
 
         double timeLeft = (gameState.BONUS_TIME_MS - elapsed) / (double) gameState.BONUS_TIME_MS;
-        int timerX = gamePanel.getWidth() - 220;
+        int timerX = gamePanel.viewWidth() - 220;
         int timerY = 65;
         int timerW = 180;
         int timerH = 10;
 
+        dirty.record(DirtyRegions.BONUS, timerX - 2, timerY - 18, timerW + 4, timerH + 22);
         g2.setColor(CLR_HUD_PANEL);
         g2.fillRoundRect(timerX - 2, timerY - 2, timerW + 4, timerH + 4, 8, 8);
         g2.setColor(CLR_PROG_BG);
@@ -192,14 +392,24 @@ public class GameRenderer {
                 + (gameState.current.word.length() - 1) * GameConfig.KEY_SPACING;
 
         double scale = (now < gameState.popUntil) ? 1.06 : 1.0;
-        int cx = gamePanel.getWidth() / 2, cy = gamePanel.getHeight() / 2 - 60;
+        int cx = gamePanel.viewWidth() / 2, cy = gamePanel.viewHeight() / 2 - 60;
         int x0 = cx - (int) (totalW * scale) / 2;
         int y = cy - (int) (keyH * scale) / 2;
 
+        int bandTop = cy - 80 - 35 - 2;
+        int bandBottom = cy + (int) (keyH * 1.06) / 2 + 10;
+        dirty.record(DirtyRegions.WORD, 0, bandTop, gamePanel.viewWidth(), bandBottom - bandTop);
+
+        drawWordInfo(g2, cx, cy - 80);
+
         Graphics2D gg = (Graphics2D) g2.create();
-        gg.translate(cx, cy);
-        gg.scale(scale, scale);
-        gg.translate(-cx, -cy);
+        if (scale != 1.0) {
+            gg.translate(cx, cy);
+            gg.scale(scale, scale);
+            gg.translate(-cx, -cy);
+        }
+        int level = PixelBlit.level(GameConfig.SCALE, pixelScale);
+        blit.begin(gg);
 
         for (int i = 0; i < gameState.current.word.length(); i++) {
             char ch = gameState.current.word.charAt(i);
@@ -207,21 +417,24 @@ public class GameRenderer {
 
             gg.setColor(CLR_BOX_SHADOW);
             gg.fillRoundRect(x - 6, y - 6, keyW + 12, keyH + 12, 18, 18);
-            drawWordInfo(g2, cx, cy - 80);
 
-            BufferedImage img = (i < gameState.idx)
-                    ? gameState.atlas.getPressed(ch)
-                    : gameState.atlas.getNormal(ch);
-            gg.drawImage(img, x, y, keyW, keyH, null);
+            TextureAtlas.Region img = (i < gameState.idx)
+                    ? gameState.atlas.getPressed(ch, level)
+                    : gameState.atlas.getNormal(ch, level);
+            if (scale == 1.0)
+                blit.drawCentered(img, x + keyW / 2, y + keyH / 2);
+            else
+                img.draw(gg, x, y, keyW, keyH);
 
             if (i == gameState.idx && gameState.state == GameConfig.State.PLAYING) {
                 Stroke old = gg.getStroke();
-                gg.setStroke(new BasicStroke(3f));
-                gg.setColor(new Color(255, 215, 0, 210));
+                gg.setStroke(STROKE_KEY_CURSOR);
+                gg.setColor(CLR_KEY_CURSOR);
                 gg.drawRoundRect(x - 3, y - 3, keyW + 6, keyH + 6, 12, 12);
                 gg.setStroke(old);
             }
         }
+        blit.end();
         gg.dispose();
     }
 
@@ -229,27 +442,37 @@ public class GameRenderer {
         if (gameState.current == null)
             return;
 
-        String title = gameState.current.display.toUpperCase(Locale.US);
-        String sub1 = gameState.current.pronun;
-        String sub2 = gameState.current.meaning;
-
-        int boxW = Math.min(500, gamePanel.getWidth() - 40);
+        int boxW = Math.min(500, gamePanel.viewWidth() - 40);
         int boxX = cx - boxW / 2;
         int boxH = 70;
         int boxY = cy - boxH / 2;
 
-        g2.setColor(CLR_HUD_PANEL);
+        g2.setColor(CLR_WORD_INFO_BG);
         g2.fillRoundRect(boxX, boxY, boxW, boxH, 15, 15);
-        g2.setColor(Color.WHITE);
-        g2.setFont(uiSettings.fontBold20);
-        centerTextAt(g2, title, cx, cy - 15);
 
-        g2.setColor(new Color(220, 220, 220));
-        g2.setFont(uiSettings.fontPlain16);
-        centerTextAt(g2, sub1 + " • " + sub2, cx, cy + 8);
+        TextLayoutCache.WordLayout layout = uiSettings.wordLayouts.get(
+                gameState.current, uiSettings.fontBold20, uiSettings.fontPlain16);
+        if (layout == null) {
+            g2.setColor(Color.WHITE);
+            g2.setFont(uiSettings.fontBold20);
+            centerTextAt(g2, gameState.current.display.toUpperCase(Locale.US), cx, cy - 15);
+            g2.setColor(CLR_SETTINGS_LABEL);
+            g2.setFont(uiSettings.fontPlain16);
+            centerTextAt(g2, gameState.current.pronun + " • " + gameState.current.meaning, cx, cy + 8);
+            return;
+        }
+
+        g2.setColor(Color.WHITE);
+        if (layout.title != null)
+            layout.title.draw(g2, cx - layout.titleWidth / 2f, cy - 15);
+        g2.setColor(CLR_SETTINGS_LABEL);
+        if (layout.sub != null)
+            layout.sub.draw(g2, cx - layout.subWidth / 2f, cy + 8);
     }
 
     private void drawFooterInfo(Graphics2D g2) {
+        if (gameState.state != GameConfig.State.PLAYING)
+            dirty.record(DirtyRegions.FOOTER, 0, gamePanel.viewHeight() - 150, gamePanel.viewWidth(), 100);
         if (gameState.state == GameConfig.State.READY) {
             drawSpacePrompt(g2, "กด ", " เพื่อเริ่มเกม");
             drawArrowPrompt(g2, "กด ", " เพื่อเลือกตัวละคร");
@@ -268,26 +491,32 @@ public class GameRenderer {
                         ? uiSettings.spaceFramePressed
                         : uiSettings.spaceFrameNormal);
 
-        g2.setFont(uiSettings.fontBold20);
-        FontMetrics fm = g2.getFontMetrics();
-        int spriteH = 26;
-        int spriteW = (frame != null)
-                ? (int) (frame.getWidth() * (spriteH / (double) frame.getHeight()))
-                : 0;
-        int totalW = fm.stringWidth(pre) + spriteW + fm.stringWidth(post);
-        int y = gamePanel.getHeight() - 120;
-        int x = (gamePanel.getWidth() - totalW) / 2;
-
-        g2.setColor(Color.WHITE);
-        g2.drawString(pre, x, y);
-        int curX = x + fm.stringWidth(pre);
+        LayerCache layer = frame == uiSettings.spaceFramePressed ? spacePressedLayer : spaceLayer;
+        long stamp = viewStamp();
+        if (!layer.isValid(stamp, pre, post, frame, null)) {
+            g2.setFont(uiSettings.fontBold20);
+            FontMetrics fm = g2.getFontMetrics();
+            int spriteH = 26;
+            int spriteW = spriteWidth(frame, spriteH);
+            int totalW = fm.stringWidth(pre) + spriteW + fm.stringWidth(post);
+            int y = gamePanel.viewHeight() - 120;
+            int x = (gamePanel.viewWidth() - totalW) / 2;
+
+            Graphics2D lg = beginPromptLayer(layer, g2, fm, x, y, totalW, spriteH, stamp);
+            layer.keys(pre, post, frame, null);
+            lg.setColor(Color.WHITE);
+            lg.drawString(pre, x, y);
+            int curX = x + fm.stringWidth(pre);
+
+            if (frame != null) {
+                drawSprite(lg, frame, curX, y - spriteH + 3, spriteW, spriteH);
+                curX += spriteW;
+            }
 
-        if (frame != null) {
-            g2.drawImage(frame, curX, y - spriteH + 3, spriteW, spriteH, null);
-            curX += spriteW;
+            lg.drawString(post, curX, y);
+            lg.dispose();
         }
-
-        g2.drawString(post, curX, y);
+        layer.draw(g2);
     }
 
     private void drawArrowPrompt(Graphics2D g2, String pre, String post) {
@@ -299,34 +528,37 @@ public class GameRenderer {
                 ? uiSettings.arrowRightFrame
                 : uiSettings.arrowRightNormal;
 
-        g2.setFont(uiSettings.fontBold16);
-        FontMetrics fm = g2.getFontMetrics();
-        int spriteH = 22;
-        int spriteW = (leftFrame != null)
-                ? (int) (leftFrame.getWidth() * (spriteH / (double) leftFrame.getHeight()))
-                : 0;
-        int spriteW2 = (rightFrame != null)
-                ? (int) (rightFrame.getWidth() * (spriteH / (double) rightFrame.getHeight()))
-                : 0;
-        int totalW = fm.stringWidth(pre) + spriteW + spriteW2 + fm.stringWidth(post) + 10;
-        int y = gamePanel.getHeight() - 90;
-        int x = (gamePanel.getWidth() - totalW) / 2;
-
-        g2.setColor(Color.WHITE);
-        g2.drawString(pre, x, y);
-        int curX = x + fm.stringWidth(pre);
+        long stamp = viewStamp();
+        if (!arrowLayer.isValid(stamp, pre, post, leftFrame, rightFrame)) {
+            g2.setFont(uiSettings.fontBold16);
+            FontMetrics fm = g2.getFontMetrics();
+            int spriteH = 22;
+            int spriteW = spriteWidth(leftFrame, spriteH);
+            int spriteW2 = spriteWidth(rightFrame, spriteH);
+            int totalW = fm.stringWidth(pre) + spriteW + spriteW2 + fm.stringWidth(post) + 10;
+            int y = gamePanel.viewHeight() - 90;
+            int x = (gamePanel.viewWidth() - totalW) / 2;
+
+            Graphics2D lg = beginPromptLayer(arrowLayer, g2, fm, x, y, totalW, spriteH, stamp);
+            arrowLayer.keys(pre, post, leftFrame, rightFrame);
+            lg.setColor(Color.WHITE);
+            lg.drawString(pre, x, y);
+            int curX = x + fm.stringWidth(pre);
+
+            if (leftFrame != null) {
+                drawSprite(lg, leftFrame, curX, y - spriteH + 2, spriteW, spriteH);
+                curX += spriteW + 5;
+            }
 
-        if (leftFrame != null) {
-            g2.drawImage(leftFrame, curX, y - spriteH + 2, spriteW, spriteH, null);
-            curX += spriteW + 5;
-        }
+            if (rightFrame != null) {
+                drawSprite(lg, rightFrame, curX, y - spriteH + 2, spriteW2, spriteH);
+                curX += spriteW2;
+            }
 
-        if (rightFrame != null) {
-            g2.drawImage(rightFrame, curX, y - spriteH + 2, spriteW2, spriteH, null);
-            curX += spriteW2;
+            lg.drawString(post, curX, y);
+            lg.dispose();
         }
-
-        g2.drawString(post, curX, y);
+        arrowLayer.draw(g2);
     }
 
     private void drawBackspacePrompt(Graphics2D g2, String pre, String post) {
@@ -334,38 +566,70 @@ public class GameRenderer {
                 ? uiSettings.backspaceFrameNormal
                 : null;
 
-        g2.setFont(uiSettings.fontBold16);
-        FontMetrics fm = g2.getFontMetrics();
-        int spriteH = 22;
-        int spriteW = (frame != null)
+        long stamp = viewStamp();
+        if (!backspaceLayer.isValid(stamp, pre, post, frame, null)) {
+            g2.setFont(uiSettings.fontBold16);
+            FontMetrics fm = g2.getFontMetrics();
+            int spriteH = 22;
+            int spriteW = spriteWidth(frame, spriteH);
+            int totalW = fm.stringWidth(pre) + spriteW + fm.stringWidth(post);
+            int y = gamePanel.viewHeight() - 60;
+            int x = (gamePanel.viewWidth() - totalW) / 2;
+
+            Graphics2D lg = beginPromptLayer(backspaceLayer, g2, fm, x, y, totalW, spriteH, stamp);
+            backspaceLayer.keys(pre, post, frame, null);
+            lg.setColor(Color.WHITE);
+            lg.drawString(pre, x, y);
+            int curX = x + fm.stringWidth(pre);
+
+            if (frame != null) {
+                drawSprite(lg, frame, curX, y - spriteH + 2, spriteW, spriteH);
+                curX += spriteW;
+            }
+
+            lg.drawString(post, curX, y);
+            lg.dispose();
+        }
+        backspaceLayer.draw(g2);
+    }
+
+    private int spriteWidth(BufferedImage frame, int spriteH) {
+        return (frame != null)
                 ? (int) (frame.getWidth() * (spriteH / (double) frame.getHeight()))
                 : 0;
-        int totalW = fm.stringWidth(pre) + spriteW + fm.stringWidth(post);
-        int y = gamePanel.getHeight() - 60;
-        int x = (gamePanel.getWidth() - totalW) / 2;
+    }
 
-        g2.setColor(Color.WHITE);
-        g2.drawString(pre, x, y);
-        int curX = x + fm.stringWidth(pre);
+    private int layerRebuilds() {
+        return settingsLayer.rebuilds() + spaceLayer.rebuilds() + spacePressedLayer.rebuilds() + arrowLayer.rebuilds()
+                + backspaceLayer.rebuilds();
+    }
 
-        if (frame != null) {
-            g2.drawImage(frame, curX, y - spriteH + 2, spriteW, spriteH, null);
-            curX += spriteW;
-        }
+    private long viewStamp() {
+        long stamp = LayerCache.mix(gamePanel.viewWidth(), gamePanel.viewHeight());
+        return LayerCache.mix(stamp, Double.doubleToLongBits(pixelScale));
+    }
 
-        g2.drawString(post, curX, y);
+    private Graphics2D beginPromptLayer(LayerCache layer, Graphics2D g2, FontMetrics fm, int x, int y, int totalW,
+            int spriteH, long stamp) {
+        int top = y - Math.max(fm.getAscent(), spriteH) - 8;
+        int bottom = y + fm.getDescent() + 8;
+        Graphics2D lg = layer.begin(x - 4, top, totalW + 8, bottom - top, pixelScale, stamp);
+        lg.setRenderingHints(g2.getRenderingHints());
+        lg.setFont(g2.getFont());
+        return lg;
     }
 
     private void drawBars(Graphics2D g2) {
-        int barW = Math.min((int) (gamePanel.getWidth() * 0.45), 400);
-        int x = (gamePanel.getWidth() - barW) / 2;
-        int topY = gamePanel.getHeight() - 100;
+        int barW = Math.min((int) (gamePanel.viewWidth() * 0.45), 400);
+        int x = (gamePanel.viewWidth() - barW) / 2;
+        int topY = gamePanel.viewHeight() - 100;
         int h = 12;
 
         double p = gameState.current != null && gameState.current.word.length() > 0
                 ? (gameState.idx / (double) gameState.current.word.length())
                 : 0;
 
+        dirty.record(DirtyRegions.BARS, x - 2, topY - 24, barW + 4, h + 28);
         drawProgressBar(g2, x, topY, barW, h, p, "ความคืบหน้าคำ", new Color(70, 170, 110), new Color(50, 120, 80));
     }
 
@@ -397,30 +661,52 @@ public class GameRenderer {
     }
 
     public void drawSettingsOverlay(Graphics2D g2) {
-        g2.setColor(new Color(0, 0, 0, 160));
-        g2.fillRect(0, 0, gamePanel.getWidth(), gamePanel.getHeight());
+        g2.setColor(CLR_OVERLAY);
+        g2.fillRect(0, 0, gamePanel.viewWidth(), gamePanel.viewHeight());
+
+        if (uiSettings.panelRect == null)
+            uiSettings.layoutSettingsRects(gamePanel.viewWidth(), gamePanel.viewHeight());
+
+        Rectangle panelRect = uiSettings.panelRect;
+        long stamp = viewStamp();
+        stamp = LayerCache.mix(stamp, uiSettings.ttsEnabled ? 1 : 0);
+        stamp = LayerCache.mix(stamp, uiSettings.ttsRepeatEnabled ? 1 : 0);
+        stamp = LayerCache.mix(stamp, uiSettings.ttsSpeedLevel);
+        stamp = LayerCache.mix(stamp, panelRect.x);
+        stamp = LayerCache.mix(stamp, panelRect.y);
+        stamp = LayerCache.mix(stamp, panelRect.width);
+        stamp = LayerCache.mix(stamp, panelRect.height);
+
+        if (!settingsLayer.isValid(stamp)) {
+            Graphics2D lg = settingsLayer.begin(panelRect.x - 2, panelRect.y - 2,
+                    panelRect.width + 4, panelRect.height + 4, pixelScale, stamp);
+            lg.setRenderingHints(g2.getRenderingHints());
+            drawSettingsPanel(lg);
+            lg.dispose();
+        }
+        settingsLayer.draw(g2);
+
+        drawVolumeSlider(g2, uiSettings.masterSliderTrack, uiSettings.masterSliderKnob, uiSettings.masterVolume);
+        drawVolumeSlider(g2, uiSettings.ttsSliderTrack, uiSettings.ttsSliderKnob, uiSettings.ttsVolume);
+        drawVolumeSlider(g2, uiSettings.sfxSliderTrack, uiSettings.sfxSliderKnob, uiSettings.sfxVolume);
+        drawVolumeSlider(g2, uiSettings.musicSliderTrack, uiSettings.musicSliderKnob, uiSettings.musicVolume);
+    }
 
+    private void drawSettingsPanel(Graphics2D g2) {
         Rectangle panelRect = uiSettings.panelRect;
         Rectangle toggleRect = uiSettings.toggleRect;
         Rectangle ttsRepeatToggleRect = uiSettings.ttsRepeatToggleRect;
         Rectangle masterSliderTrack = uiSettings.masterSliderTrack;
-        Rectangle masterSliderKnob = uiSettings.masterSliderKnob;
         Rectangle ttsSliderTrack = uiSettings.ttsSliderTrack;
-        Rectangle ttsSliderKnob = uiSettings.ttsSliderKnob;
         Rectangle sfxSliderTrack = uiSettings.sfxSliderTrack;
-        Rectangle sfxSliderKnob = uiSettings.sfxSliderKnob;
         Rectangle musicSliderTrack = uiSettings.musicSliderTrack;
-        Rectangle musicSliderKnob = uiSettings.musicSliderKnob;
         Rectangle speedRectSlow = uiSettings.speedRectSlow;
         Rectangle speedRectNormal = uiSettings.speedRectNormal;
         Rectangle speedRectFast = uiSettings.speedRectFast;
 
-        if (panelRect == null)
-            uiSettings.layoutSettingsRects(gamePanel.getWidth(), gamePanel.getHeight());
-
-        g2.setColor(new Color(24, 28, 34));
+        g2.setColor(CLR_SETTINGS_BG);
         g2.fillRoundRect(panelRect.x, panelRect.y, panelRect.width, panelRect.height, 16, 16);
-        g2.setColor(new Color(255, 255, 255, 80));
+        g2.setColor(CLR_SETTINGS_OUTLINE);
         g2.drawRoundRect(panelRect.x, panelRect.y, panelRect.width, panelRect.height, 16, 16);
 
         g2.setFont(uiSettings.fontBold20);
@@ -428,66 +714,55 @@ public class GameRenderer {
         centerTextAt(g2, "ตั้งค่าเสียง", panelRect.x + panelRect.width / 2, panelRect.y + 36);
 
         g2.setFont(uiSettings.fontPlain16);
-        g2.setColor(new Color(220, 220, 220));
+        g2.setColor(CLR_SETTINGS_LABEL);
         g2.drawString("TTS", panelRect.x + 30, toggleRect.y - 10);
 
         int tx = toggleRect.x, ty = toggleRect.y, tw = toggleRect.width, th = toggleRect.height;
-        g2.setColor(uiSettings.ttsEnabled ? new Color(70, 170, 110) : new Color(90, 90, 90));
+        g2.setColor(uiSettings.ttsEnabled ? CLR_TOGGLE_ON : CLR_TOGGLE_OFF);
         g2.fillRoundRect(tx, ty, tw, th, th, th);
         int knob = th - 6;
         int kx = uiSettings.ttsEnabled ? tx + tw - knob - 3 : tx + 3;
         g2.setColor(Color.WHITE);
         g2.fillRoundRect(kx, ty + 3, knob, knob, knob, knob);
 
-        g2.setColor(new Color(220, 220, 220));
+        g2.setColor(CLR_SETTINGS_LABEL);
         g2.drawString("TTS พูดซ้ำ", ttsRepeatToggleRect.x - 100, ttsRepeatToggleRect.y - 10);
 
         tx = ttsRepeatToggleRect.x;
         ty = ttsRepeatToggleRect.y;
         tw = ttsRepeatToggleRect.width;
         th = ttsRepeatToggleRect.height;
-        g2.setColor(uiSettings.ttsRepeatEnabled ? new Color(70, 170, 110) : new Color(90, 90, 90));
+        g2.setColor(uiSettings.ttsRepeatEnabled ? CLR_TOGGLE_ON : CLR_TOGGLE_OFF);
         g2.fillRoundRect(tx, ty, tw, th, th, th);
         kx = uiSettings.ttsRepeatEnabled ? tx + tw - knob - 3 : tx + 3;
         g2.setColor(Color.WHITE);
         g2.fillRoundRect(kx, ty + 3, knob, knob, knob, knob);
 
-        g2.setColor(new Color(220, 220, 220));
+        g2.setColor(CLR_SETTINGS_LABEL);
         g2.drawString("ระดับเสียงรวม", panelRect.x + 30, masterSliderTrack.y - 10);
-        drawVolumeSlider(g2, masterSliderTrack, masterSliderKnob, uiSettings.masterVolume);
-
-        g2.setColor(new Color(220, 220, 220));
         g2.drawString("ระดับเสียง TTS", panelRect.x + 30, ttsSliderTrack.y - 10);
-        drawVolumeSlider(g2, ttsSliderTrack, ttsSliderKnob, uiSettings.ttsVolume);
-
-        g2.setColor(new Color(220, 220, 220));
         g2.drawString("ระดับเสียงเอฟเฟกต์", panelRect.x + 30, sfxSliderTrack.y - 10);
-        drawVolumeSlider(g2, sfxSliderTrack, sfxSliderKnob, uiSettings.sfxVolume);
-
-        g2.setColor(new Color(220, 220, 220));
         g2.drawString("ระดับเสียงเพลง", panelRect.x + 30, musicSliderTrack.y - 10);
-        drawVolumeSlider(g2, musicSliderTrack, musicSliderKnob, uiSettings.musicVolume);
 
-        g2.setColor(new Color(220, 220, 220));
         g2.drawString("ความเร็ว TTS", panelRect.x + 30, speedRectSlow.y - 10);
         drawSpeedButton(g2, speedRectSlow, "ช้า", uiSettings.ttsSpeedLevel == 0);
         drawSpeedButton(g2, speedRectNormal, "ปกติ", uiSettings.ttsSpeedLevel == 1);
         drawSpeedButton(g2, speedRectFast, "เร็ว", uiSettings.ttsSpeedLevel == 2);
 
         g2.setFont(uiSettings.fontSmall11);
-        g2.setColor(new Color(200, 200, 200));
+        g2.setColor(CLR_PROG_LABEL);
         centerTextAt(g2, "กด ESC เพื่อปิด", panelRect.x + panelRect.width / 2, panelRect.y + panelRect.height - 16);
     }
 
     private void drawVolumeSlider(Graphics2D g2, Rectangle track, Rectangle knob, int value) {
-        g2.setColor(new Color(60, 60, 60));
+        g2.setColor(CLR_BAR_BG);
         g2.fillRoundRect(track.x, track.y, track.width, track.height, 8, 8);
-        g2.setColor(new Color(255, 255, 255, 100));
+        g2.setColor(CLR_BAR_BG_OUTLINE);
         g2.drawRoundRect(track.x, track.y, track.width, track.height, 8, 8);
 
         int fill = (int) Math.round((value / 100.0) * track.width);
         fill = Math.max(0, Math.min(track.width, fill));
-        g2.setColor(new Color(100, 200, 255));
+        g2.setColor(CLR_SLIDER_FILL);
         g2.fillRoundRect(track.x, track.y, fill, track.height, 8, 8);
 
         g2.setColor(Color.WHITE);
@@ -495,13 +770,13 @@ public class GameRenderer {
 
         g2.setFont(uiSettings.fontSmall12);
         g2.setColor(Color.WHITE);
-        g2.drawString(value + "%", track.x + track.width + 10, track.y + 14);
+        g2.drawString(PERCENT_LABELS[Math.max(0, Math.min(100, value))], track.x + track.width + 10, track.y + 14);
     }
 
     private void drawSpeedButton(Graphics2D g2, Rectangle r, String label, boolean active) {
-        g2.setColor(active ? new Color(70, 170, 110) : new Color(60, 60, 60));
+        g2.setColor(active ? CLR_TOGGLE_ON : CLR_BAR_BG);
         g2.fillRoundRect(r.x, r.y, r.width, r.height, 10, 10);
-        g2.setColor(new Color(255, 255, 255, 100));
+        g2.setColor(CLR_BAR_BG_OUTLINE);
         g2.drawRoundRect(r.x, r.y, r.width, r.height, 10, 10);
 
         g2.setColor(Color.WHITE);
@@ -541,6 +816,15 @@ public class GameRenderer {
                 previewBoxRect.x + 10, previewBoxRect.y + 16);
     }
 
+    private void drawSprite(Graphics2D g2, BufferedImage img, int x, int y, int w, int h) {
+        TextureAtlas.Region r = TextureAtlas.shared().find(img);
+        if (r != null) {
+            r.draw(g2, x, y, w, h);
+        } else {
+            g2.drawImage(img, x, y, w, h, null);
+        }
+    }
+
     private void centerTextAt(Graphics2D g2, String s, int x, int y) {
         FontMetrics fm = g2.getFontMetrics();
         int cx = x - fm.stringWidth(s) / 2;
@@ -1,5 +1,8 @@
+import java.util.ArrayList;
 import java.util.Random;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class GameState {
     public final Random rng = new Random();
@@ -17,13 +20,18 @@ public class GameState {
     public SoundPool sHit;
     public SoundPool sDeath;
     public BackgroundMusic bgMusic;
-    public HitEffect hit;
-    public List<WordEntry> wordBank;
+    public ParticleSystem effects;
+    public final FrameProfiler profiler = new FrameProfiler();
+    public final KeystrokeTelemetry telemetry = new KeystrokeTelemetry();
+    public List<WordEntry> wordBank = new ArrayList<>();
+    public WordSampler sampler;
 
     public CharacterPack player;
     public CharacterPack bot;
 
     public int groundY;
+    public int viewW = GameConfig.BASE_WIDTH;
+    public int viewH = GameConfig.BASE_HEIGHT;
     public int playerBaseX;
     public int botBaseX;
 
@@ -32,9 +40,6 @@ public class GameState {
 
     public WordEntry current = new WordEntry("HELLO", "HELLO", "เฮลโล", "สวัสดี");
     public int idx = 0;
-    public int mistakes = 0;
-    public int correct = 0;
-    public int totalTyped = 0;
     public int wordsCompleted = 0;
     public long startMs = 0;
     public long wordStartMs = 0;
@@ -77,49 +82,62 @@ public class GameState {
     private UISettings uiSettings;
 
     public GameState() {
-        initSoundPools();
-        loadWordBank();
-        initHitEffect();
-        initBackgroundMusic();
     }
 
     public void setUISettings(UISettings uiSettings) {
         this.uiSettings = uiSettings;
     }
 
-    private void initSoundPools() {
-        sStart = new SoundPool("./res/wav/click6_1.wav", 4);
-        sType = new SoundPool(GameConfig.CLICK_WAV_PATH, 6);
-        sErr = new SoundPool("./res/wav/click14_3.wav", 4);
-        sClick = new SoundPool("./res/wav/click15_1.wav", 6);
-        sSlash = new SoundPool("./res/wav/slash1.wav", 4);
-        sHit = new SoundPool("./res/wav/villager.wav", 4);
-        sDeath = new SoundPool("./res/wav/classic_hurt.wav", 2);
-    }
-
-    private void initBackgroundMusic() {
-        try {
-            bgMusic = new BackgroundMusic("./res/wav/bg.wav");
-
-            if (uiSettings != null) {
-                float musicVol = (uiSettings.musicVolume / 100f) * (uiSettings.masterVolume / 100f);
-                bgMusic.setVolume(musicVol);
-            } else {
-                bgMusic.setVolume(0.02f);
+    public CompletableFuture<Void> loadAssets(AssetLoader loader) {
+        loadSound(loader, "./res/wav/click6_1.wav", 4, p -> sStart = p);
+        loadSound(loader, GameConfig.CLICK_WAV_PATH, 6, p -> sType = p);
+        loadSound(loader, "./res/wav/click14_3.wav", 4, p -> sErr = p);
+        loadSound(loader, "./res/wav/click15_1.wav", 6, p -> sClick = p);
+        loadSound(loader, "./res/wav/slash1.wav", 4, p -> sSlash = p);
+        loadSound(loader, "./res/wav/villager.wav", 4, p -> sHit = p);
+        loadSound(loader, "./res/wav/classic_hurt.wav", 2, p -> sDeath = p);
+        loader.run("music", false, this::initBackgroundMusic);
+
+        CompletableFuture<Void> keys = loader.run("keys", true, () -> {
+            initAtlas();
+            warmupAtlas();
+        });
+        CompletableFuture<Void> words = loader.run("words", true, () -> {
+            List<WordEntry> list = WordBank.loadWordBank();
+            WordSampler ws = new WordSampler(list, rng);
+            if (uiSettings != null)
+                uiSettings.tts.setCache(TtsCache.open(uiSettings.tts.voiceName(), list));
+            synchronized (this) {
+                wordBank = list;
+                sampler = ws;
             }
-
-            bgMusic.play();
-        } catch (Exception e) {
-            System.err.println("Failed to initialize background music: " + e.getMessage());
-        }
+        });
+        CompletableFuture<Void> fx = loader.run("effects", true, () -> {
+            ParticleSystem ps = new ParticleSystem("./effect/hit-sprite-sheet.png");
+            synchronized (this) {
+                effects = ps;
+            }
+        });
+        return CompletableFuture.allOf(keys, words, fx);
     }
 
-    private void loadWordBank() {
-        wordBank = WordBank.loadWordBank();
+    private void loadSound(AssetLoader loader, String path, int size, Consumer<SoundPool> set) {
+        loader.run(path.substring(path.lastIndexOf('/') + 1), false, () -> {
+            SoundPool p = new SoundPool(path, size);
+            synchronized (this) {
+                set.accept(p);
+            }
+        });
     }
 
-    private void initHitEffect() {
-        hit = new HitEffect("./effect/hit-sprite-sheet.png");
+    private void initBackgroundMusic() {
+        BackgroundMusic music = new BackgroundMusic("./res/wav/bg.wav");
+        if (uiSettings != null)
+            uiSettings.applyVolumeToPools(this);
+        music.play();
+        synchronized (this) {
+            bgMusic = music;
+        }
     }
 
     public void initAtlas() {
@@ -128,6 +146,7 @@ public class GameState {
                 GameConfig.FILE_EXT,
                 GameConfig.TWO_FRAMES_PER_FILE,
                 GameConfig.CHAR_SET);
+        atlas.prescale(GameConfig.SCALE);
     }
 
     public void warmupAtlas() {
@@ -147,12 +166,16 @@ public class GameState {
             }
             atlas.getNormal(' ');
             atlas.getPressed(' ');
+            atlas.getNormal(' ', GameConfig.SCALE);
+            atlas.getPressed(' ', GameConfig.SCALE);
         } catch (Exception ignored) {
         }
     }
 
     public void updateGroundAndBases(int panelWidth, int panelHeight) {
         groundY = panelHeight - 60;
+        viewW = panelWidth;
+        viewH = panelHeight;
         computeBasePositions(panelWidth, panelHeight);
         try {
             player.y = groundY;
@@ -192,27 +215,43 @@ public class GameState {
         botBaseX = Math.max(playerBaseX + 220, botBaseX - 80);
     }
 
+    public int keyCenterX(int i) {
+        int keyW = atlas.keySize().width * GameConfig.SCALE;
+        int n = current.word.length();
+        int totalW = n * keyW + (n - 1) * GameConfig.KEY_SPACING;
+        return viewW / 2 - totalW / 2 + i * (keyW + GameConfig.KEY_SPACING) + keyW / 2;
+    }
+
+    public int wordCenterY() {
+        return viewH / 2 - 60;
+    }
+
     public void nextWord() {
         if (wordBank.isEmpty()) {
             current = new WordEntry("HELLO", "HELLO", "เฮลโล", "สวัสดี");
         } else {
-            WordEntry newWord;
-            do {
-                newWord = wordBank.get(rng.nextInt(wordBank.size()));
-            } while (wordBank.size() > 1 && newWord.word.equals(current.word));
-            current = newWord;
+            if (sampler == null || !sampler.isFor(wordBank))
+                sampler = new WordSampler(wordBank, rng);
+            current = sampler.draw(roundProgress());
         }
 
         idx = 0;
         wordStartMs = System.currentTimeMillis();
 
         if (uiSettings != null) {
+            uiSettings.prefetchWordInfo(current);
             uiSettings.speakCurrentWord(current);
         }
     }
 
+    private float roundProgress() {
+        if (state != GameConfig.State.PLAYING)
+            return 0f;
+        return Math.min(1f, (System.currentTimeMillis() - startMs) / (GameConfig.ROUND_SECONDS * 1000f));
+    }
+
     public void resetRun(AnimationController animController) {
-        mistakes = correct = totalTyped = wordsCompleted = bonusStreak = 0;
+        wordsCompleted = bonusStreak = 0;
         health = GameConfig.MAX_HEALTH;
         pendingNextWord = false;
         botSeq = false;
@@ -232,11 +271,12 @@ public class GameState {
 
         nextWord();
         startMs = System.currentTimeMillis();
+        telemetry.startRound(System.nanoTime());
         state = GameConfig.State.PLAYING;
     }
 
-    public void checkBonus() {
-        long elapsed = System.currentTimeMillis() - wordStartMs;
+    public void checkBonus(long eventMs) {
+        long elapsed = eventMs - wordStartMs;
         if (elapsed <= BONUS_TIME_MS) {
             bonusStreak++;
             bonusUntil = System.currentTimeMillis() + 1500;
@@ -319,20 +359,21 @@ public class GameState {
         }
     }
 
-    public void handleChar(char c, AnimationController animController) {
-        totalTyped++;
-        if (idx < current.word.length() && c == current.word.charAt(idx)) {
+    public void handleChar(char c, long eventMs, long eventNs, AnimationController animController) {
+        char expected = idx < current.word.length() ? current.word.charAt(idx) : 0;
+        telemetry.record(eventNs, expected, c, c == expected, wordsCompleted);
+        if (c == expected) {
             animController.playIfAudible(sType);
+            effects.spawnBurst(keyCenterX(idx), wordCenterY());
             idx++;
-            correct++;
             popUntil = System.currentTimeMillis() + 90;
             if (idx >= current.word.length()) {
                 wordsCompleted++;
+                effects.spawnExplosion(viewW / 2, wordCenterY());
                 startPlayerAttackSequence();
-                checkBonus();
+                checkBonus(eventMs);
             }
         } else {
-            mistakes++;
             bonusStreak = 0;
             animController.playIfAudible(sErr);
             long now = System.currentTimeMillis();
@@ -343,6 +384,7 @@ public class GameState {
             startBotAttackSequence();
             if (health <= 0) {
                 state = GameConfig.State.GAMEOVER;
+                endRound();
                 current = new WordEntry("OVER", "OVER", "โอเวอร์", "จบ");
                 idx = 0;
                 animController.setAnim(player, CharacterPack.Anim.DEATH);
@@ -352,10 +394,19 @@ public class GameState {
         }
     }
 
+    private void endRound() {
+        telemetry.endRound(System.nanoTime());
+        if (GameConfig.DEBUG_STATS)
+            new Thread(telemetry::export, "telemetry-export").start();
+    }
+
     public void update(long now, AnimationController animController) {
+        effects.update(now);
+
         if (state == GameConfig.State.PLAYING) {
             if (now - startMs >= GameConfig.ROUND_SECONDS * 1000L) {
                 state = GameConfig.State.GAMEOVER;
+                endRound();
                 current = new WordEntry("OVER", "OVER", "", "");
                 idx = 0;
                 animController.setAnim(player, CharacterPack.Anim.DEATH);
@@ -388,6 +439,9 @@ public class GameState {
             botTakingHit = false;
         }
 
+    }
+
+    public void countFrame(long now) {
         frames++;
         if (lastFpsTime == 0)
             lastFpsTime = now;
@@ -0,0 +1,63 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+public class Images {
+    public static GraphicsConfiguration defaultConfiguration() {
+        if (GraphicsEnvironment.isHeadless())
+            return null;
+        try {
+            return GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice()
+                    .getDefaultConfiguration();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public static BufferedImage compatible(int w, int h) {
+        GraphicsConfiguration gc = defaultConfiguration();
+        if (gc != null)
+            return gc.createCompatibleImage(Math.max(1, w), Math.max(1, h), Transparency.TRANSLUCENT);
+        return new BufferedImage(Math.max(1, w), Math.max(1, h), BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    public static BufferedImage scaled(BufferedImage src, int scale) {
+        return scaled(src, scale, false);
+    }
+
+    public static BufferedImage scaled(BufferedImage src, int scale, boolean flipX) {
+        int w = src.getWidth() * scale;
+        int h = src.getHeight() * scale;
+        BufferedImage out = compatible(w, h);
+        Graphics2D g = out.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        if (flipX) {
+            g.drawImage(src, w, 0, -w, h, null);
+        } else {
+            g.drawImage(src, 0, 0, w, h, null);
+        }
+        g.dispose();
+        return out;
+    }
+
+    public static Rectangle opaqueBounds(BufferedImage img) {
+        int w = img.getWidth(), h = img.getHeight();
+        int[] row = new int[w];
+        int minX = w, minY = h, maxX = -1, maxY = -1;
+        for (int y = 0; y < h; y++) {
+            img.getRGB(0, y, w, 1, row, 0, w);
+            for (int x = 0; x < w; x++) {
+                if ((row[x] >>> 24) != 0) {
+                    if (x < minX) minX = x;
+                    if (x > maxX) maxX = x;
+                    if (y < minY) minY = y;
+                    maxY = y;
+                }
+            }
+        }
+        if (maxX < 0)
+            return new Rectangle(0, 0, 1, 1);
+        return new Rectangle(minX, minY, maxX - minX + 1, maxY - minY + 1);
+    }
+}
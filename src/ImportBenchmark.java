@@ -0,0 +1,94 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+public class ImportBenchmark {
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws Exception {
+        String path = args.length > 0 && !args[0].matches("\\d+") ? args[0]
+                : synthetic(args.length > 0 ? Integer.parseInt(args[0]) : 16);
+        long bytes = new File(path).length();
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf(Locale.US, "%s, %.1f MB, %d core(s)%n", path, bytes / 1e6, cores);
+        System.out.printf("%-16s %10s %10s %8s %8s%n", "parser", "ms", "MB/s", "words", "errors");
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool all = new ForkJoinPool(cores);
+        for (int i = 0; i < RUNS; i++) {
+            regexLoop(path);
+            WordImporter.importFile(path, single);
+            WordImporter.importFile(path, all);
+        }
+
+        long best = Long.MAX_VALUE;
+        int words = 0;
+        for (int i = 0; i < RUNS; i++) {
+            long t0 = System.nanoTime();
+            words = regexLoop(path).size();
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        System.out.printf(Locale.US, "%-16s %10.1f %10.1f %8d %8s%n", "regex loop", best / 1e6, bytes / 1e3 / (best / 1e6),
+                words, "-");
+
+        report("importer x1", path, single);
+        report("importer x" + cores, path, all);
+        single.shutdown();
+        all.shutdown();
+    }
+
+    private static void report(String name, String path, ForkJoinPool pool) throws IOException {
+        WordImporter.Result best = null;
+        for (int i = 0; i < RUNS; i++) {
+            WordImporter.Result r = WordImporter.importFile(path, pool);
+            if (best == null || r.nanos < best.nanos)
+                best = r;
+        }
+        System.out.printf(Locale.US, "%-16s %10.1f %10.1f %8d %8d  (%d duplicates merged)%n", name, best.nanos / 1e6,
+                best.mbPerSec(), best.words.size(), best.errors.size(), best.duplicates);
+    }
+
+    private static List<WordEntry> regexLoop(String path) throws IOException {
+        List<WordEntry> list = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("//"))
+                    continue;
+                String[] parts = line.split("\\|");
+                if (parts.length < 3)
+                    continue;
+                String rawWord = parts[0].trim();
+                String wordUP = rawWord.toUpperCase(Locale.US).replaceAll("[^A-Z0-9]", "");
+                if (wordUP.isEmpty())
+                    continue;
+                list.add(new WordEntry(wordUP, rawWord, parts[1].trim(), parts[2].trim()));
+            }
+        }
+        return list;
+    }
+
+    private static String synthetic(int mb) throws IOException {
+        List<String> seed = Files.readAllLines(Path.of(GameConfig.WORDS_TXT_PATH), StandardCharsets.UTF_8);
+        Path out = Files.createTempFile("vocab", ".txt");
+        out.toFile().deleteOnExit();
+        try (BufferedWriter w = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            long written = 0;
+            for (int i = 0; written < mb * 1_000_000L; i++) {
+                String[] f = seed.get(i % seed.size()).split("\\|");
+                String line = i % 97 == 0 ? f[0] + " (broken line)"
+                        : f[0] + (i % 47 == 0 && i >= seed.size() ? i - seed.size() : i) + "|" + f[1] + "|" + f[2] + " " + (i % 7);
+                w.write(line);
+                w.newLine();
+                written += line.getBytes(StandardCharsets.UTF_8).length + 1;
+            }
+        }
+        return out.toString();
+    }
+}
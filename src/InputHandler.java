@@ -8,14 +8,13 @@ import java.awt.RenderingHints;
 import java.awt.Cursor;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
-import javax.imageio.ImageIO;
-import java.io.File;
 
 public class InputHandler implements KeyListener {
     private final GamePanel gamePanel;
     private final GameState gameState;
     private final UISettings uiSettings;
     private final AnimationController animController;
+    private final InputQueue input = new InputQueue();
 
     public InputHandler(GamePanel gamePanel, GameState gameState, UISettings uiSettings,
             AnimationController animController) {
@@ -30,59 +29,73 @@ public class InputHandler implements KeyListener {
     }
 
     private void initKeyListeners() {
-        gamePanel.addKeyListener(this);
+        gamePanel.inputSurface().addKeyListener(this);
+        gamePanel.inputSurface().addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                input.offer(InputQueue.RESET, 0, System.currentTimeMillis(), System.nanoTime());
+                if (!gamePanel.isActiveRendering())
+                    gamePanel.pollInput();
+            }
+        });
     }
 
     private void initMouseListeners() {
-        gamePanel.addMouseListener(new MouseAdapter() {
+        gamePanel.inputSurface().addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
                 if (uiSettings.showSettings)
                     return;
+                Point p = gamePanel.toView(e.getPoint());
                 animController.playIfAudible(gameState.sClick);
-                gameState.hit.playAt(e.getX(), e.getY());
+                synchronized (gameState) {
+                    gameState.effects.spawnHit(p.x, p.y);
+                }
             }
 
             @Override
             public void mousePressed(MouseEvent e) {
                 if (!uiSettings.showSettings)
                     return;
+                Point p = gamePanel.toView(e.getPoint());
 
                 // Toggle TTS on/off
-                if (uiSettings.toggleRect != null && uiSettings.toggleRect.contains(e.getPoint())) {
+                if (uiSettings.toggleRect != null && uiSettings.toggleRect.contains(p)) {
                     uiSettings.ttsEnabled = !uiSettings.ttsEnabled;
+                    if (!uiSettings.ttsEnabled)
+                        uiSettings.tts.cancel();
                     gamePanel.repaint();
                 }
 
                 // Toggle TTS repeat on/off
-                if (uiSettings.ttsRepeatToggleRect != null && uiSettings.ttsRepeatToggleRect.contains(e.getPoint())) {
+                if (uiSettings.ttsRepeatToggleRect != null && uiSettings.ttsRepeatToggleRect.contains(p)) {
                     uiSettings.ttsRepeatEnabled = !uiSettings.ttsRepeatEnabled;
                     gamePanel.repaint();
                 }
 
                 // Set TTS speed
-                if (uiSettings.speedRectSlow != null && uiSettings.speedRectSlow.contains(e.getPoint())) {
+                if (uiSettings.speedRectSlow != null && uiSettings.speedRectSlow.contains(p)) {
                     uiSettings.setTtsSpeedLevel(0);
-                } else if (uiSettings.speedRectNormal != null && uiSettings.speedRectNormal.contains(e.getPoint())) {
+                } else if (uiSettings.speedRectNormal != null && uiSettings.speedRectNormal.contains(p)) {
                     uiSettings.setTtsSpeedLevel(1);
-                } else if (uiSettings.speedRectFast != null && uiSettings.speedRectFast.contains(e.getPoint())) {
+                } else if (uiSettings.speedRectFast != null && uiSettings.speedRectFast.contains(p)) {
                     uiSettings.setTtsSpeedLevel(2);
                 }
 
                 // Check if user is clicking on a volume slider knob
-                checkSliderKnob(e, uiSettings.masterSliderKnob, "master");
-                checkSliderKnob(e, uiSettings.ttsSliderKnob, "tts");
-                checkSliderKnob(e, uiSettings.sfxSliderKnob, "sfx");
-                checkSliderKnob(e, uiSettings.musicSliderKnob, "music");
+                checkSliderKnob(p, uiSettings.masterSliderKnob, "master");
+                checkSliderKnob(p, uiSettings.ttsSliderKnob, "tts");
+                checkSliderKnob(p, uiSettings.sfxSliderKnob, "sfx");
+                checkSliderKnob(p, uiSettings.musicSliderKnob, "music");
 
                 // Check if user is clicking on a volume slider track
-                checkSliderTrack(e, uiSettings.masterSliderTrack, "master");
-                checkSliderTrack(e, uiSettings.ttsSliderTrack, "tts");
-                checkSliderTrack(e, uiSettings.sfxSliderTrack, "sfx");
-                checkSliderTrack(e, uiSettings.musicSliderTrack, "music");
+                checkSliderTrack(p, uiSettings.masterSliderTrack, "master");
+                checkSliderTrack(p, uiSettings.ttsSliderTrack, "tts");
+                checkSliderTrack(p, uiSettings.sfxSliderTrack, "sfx");
+                checkSliderTrack(p, uiSettings.musicSliderTrack, "music");
             }
 
-            private void checkSliderKnob(MouseEvent e, Rectangle knob, String type) {
+            private void checkSliderKnob(Point p, Rectangle knob, String type) {
                 if (knob != null) {
                     java.awt.Rectangle big = new java.awt.Rectangle(
                             knob.x - 6,
@@ -90,17 +103,17 @@ public class InputHandler implements KeyListener {
                             knob.width + 12,
                             knob.height + 12);
 
-                    if (big.contains(e.getPoint())) {
+                    if (big.contains(p)) {
                         uiSettings.draggingSlider = true;
                         uiSettings.draggingSliderType = type;
                     }
                 }
             }
 
-            private void checkSliderTrack(MouseEvent e, Rectangle track, String type) {
-                if (track != null && track.contains(e.getPoint())) {
+            private void checkSliderTrack(Point p, Rectangle track, String type) {
+                if (track != null && track.contains(p)) {
                     uiSettings.draggingSliderType = type;
-                    uiSettings.updateSliderFromMouse(e.getX());
+                    uiSettings.updateSliderFromMouse(p.x);
                     uiSettings.draggingSlider = true;
                     uiSettings.applyVolumeToPools(gameState);
                     gamePanel.repaint();
@@ -114,25 +127,28 @@ public class InputHandler implements KeyListener {
             }
         });
 
-        gamePanel.addMouseMotionListener(new MouseMotionAdapter() {
+        gamePanel.inputSurface().addMouseMotionListener(new MouseMotionAdapter() {
             @Override
             public void mouseDragged(MouseEvent e) {
+                Point p = gamePanel.toView(e.getPoint());
                 if (uiSettings.showSettings) {
                     if (uiSettings.draggingSlider) {
-                        uiSettings.updateSliderFromMouse(e.getX());
+                        uiSettings.updateSliderFromMouse(p.x);
                         uiSettings.applyVolumeToPools(gameState);
                         gamePanel.repaint();
                     }
                     return;
                 }
-                gameState.hit.playAt(e.getX(), e.getY());
+                synchronized (gameState) {
+                    gameState.effects.spawnHit(p.x, p.y);
+                }
             }
         });
     }
 
     private void initCursor() {
         try {
-            Image raw = ImageIO.read(new File("./res/keys/hand_small_point.png"));
+            Image raw = AssetPack.image("./res/keys/hand_small_point.png");
             int target = 24;
             int w = raw.getWidth(null), h = raw.getHeight(null);
             float s = Math.min(target / (float) w, target / (float) h);
@@ -164,19 +180,87 @@ public class InputHandler implements KeyListener {
 
             Cursor customCursor = tk.createCustomCursor(buf, hot, "customCursor");
             gamePanel.setCursor(customCursor);
+            gamePanel.inputSurface().setCursor(customCursor);
         } catch (Exception ignored) {
         }
     }
 
     @Override
     public void keyPressed(KeyEvent e) {
-        int code = e.getKeyCode();
+        input.offer(InputQueue.PRESS, e.getKeyCode(), e.getWhen(), System.nanoTime());
+        if (!gamePanel.isActiveRendering())
+            gamePanel.pollInput();
+    }
+
+    @Override
+    public void keyReleased(KeyEvent e) {
+        input.offer(InputQueue.RELEASE, e.getKeyCode(), e.getWhen(), System.nanoTime());
+        if (!gamePanel.isActiveRendering())
+            gamePanel.pollInput();
+    }
+
+    public void drain() {
+        while (!input.isEmpty()) {
+            int code = input.code();
+            long stampNs = input.stampNs();
+            if (input.type() == InputQueue.PRESS) {
+                boolean repeat = input.isDown(code);
+                input.setDown(code, true);
+                long whenMs = input.whenMs();
+                long eventNs = stampNs;
+                if (whenMs > 0)
+                    eventNs = Math.min(stampNs,
+                            System.nanoTime() - (System.currentTimeMillis() - whenMs) * 1_000_000L);
+                else
+                    whenMs = System.currentTimeMillis() - (System.nanoTime() - stampNs) / 1_000_000;
+                AudioLatency.keyPressed(whenMs, stampNs);
+                try {
+                    onKeyPressed(code, whenMs, eventNs, repeat);
+                } finally {
+                    AudioLatency.keyDone();
+                }
+            } else if (input.type() == InputQueue.RELEASE) {
+                input.setDown(code, false);
+                onKeyReleased(code);
+            } else {
+                for (int k = 0; k < 256; k++) {
+                    if (input.isDown(k)) {
+                        input.setDown(k, false);
+                        onKeyReleased(k);
+                    }
+                }
+            }
+            input.advance();
+            gameState.isSpaceHeld = input.isDown(KeyEvent.VK_SPACE);
+        }
+    }
+
+    public int droppedEvents() {
+        return input.dropped();
+    }
 
+    private void onKeyPressed(int code, long eventMs, long eventNs, boolean repeat) {
         if (code >= 0 && code < gameState.lastPressAt.length) {
-            long now = System.currentTimeMillis();
-            if (now - gameState.lastPressAt[code] < GameConfig.DEBOUNCE_MS)
+            long last = gameState.lastPressAt[code];
+            if (last != 0 && eventNs - last < GameConfig.DEBOUNCE_MS * 1_000_000L)
                 return;
-            gameState.lastPressAt[code] = now;
+            gameState.lastPressAt[code] = eventNs;
+        }
+
+        if (code == KeyEvent.VK_F3) {
+            gameState.profiler.toggle();
+            gamePanel.repaint();
+            return;
+        }
+
+        if (code == KeyEvent.VK_F4) {
+            new Thread(() -> AudioLatency.export(AudioMixer.shared()), "latency-export").start();
+            return;
+        }
+
+        if (code == KeyEvent.VK_F5) {
+            new Thread(gameState.telemetry::export, "telemetry-export").start();
+            return;
         }
 
         if (code == KeyEvent.VK_ESCAPE) {
@@ -198,10 +282,8 @@ public class InputHandler implements KeyListener {
         if (gameState.state != GameConfig.State.PLAYING)
             return;
 
-        if (code == KeyEvent.VK_SPACE) {
-            gameState.isSpaceHeld = true;
+        if (code == KeyEvent.VK_SPACE)
             return;
-        }
 
         if (code == KeyEvent.VK_BACK_SPACE) {
             if (gameState.idx > 0) {
@@ -211,19 +293,18 @@ public class InputHandler implements KeyListener {
             return;
         }
 
-        if (gameState.botSeq || gameState.playerSeq)
+        if (gameState.botSeq || gameState.playerSeq || repeat)
             return;
 
         if (code >= KeyEvent.VK_A && code <= KeyEvent.VK_Z) {
-            gameState.handleChar((char) ('A' + code - KeyEvent.VK_A), animController);
+            gameState.handleChar((char) ('A' + code - KeyEvent.VK_A), eventMs, eventNs, animController);
         } else if (code >= KeyEvent.VK_0 && code <= KeyEvent.VK_9) {
-            gameState.handleChar((char) ('0' + code - KeyEvent.VK_0), animController);
+            gameState.handleChar((char) ('0' + code - KeyEvent.VK_0), eventMs, eventNs, animController);
         }
     }
 
     private void handleReadyStateKeyPress(int code) {
         if (code == KeyEvent.VK_SPACE) {
-            gameState.isSpaceHeld = true;
             gameState.resetRun(animController);
             gamePanel.repaint();
             return;
@@ -252,7 +333,6 @@ public class InputHandler implements KeyListener {
 
     private void handleGameOverStateKeyPress(int code) {
         if (code == KeyEvent.VK_SPACE) {
-            gameState.isSpaceHeld = true;
             gameState.resetRun(animController);
             gamePanel.repaint();
             return;
@@ -281,17 +361,13 @@ public class InputHandler implements KeyListener {
     public void keyTyped(KeyEvent e) {
     }
 
-    @Override
-    public void keyReleased(KeyEvent e) {
-        if (e.getKeyCode() == KeyEvent.VK_LEFT) {
+    private void onKeyReleased(int code) {
+        if (code == KeyEvent.VK_LEFT) {
             uiSettings.arrowLeftFrame = uiSettings.arrowLeftNormal;
         }
 
-        if (e.getKeyCode() == KeyEvent.VK_RIGHT) {
+        if (code == KeyEvent.VK_RIGHT) {
             uiSettings.arrowRightFrame = uiSettings.arrowRightNormal;
         }
-
-        if (e.getKeyCode() == KeyEvent.VK_SPACE)
-            gameState.isSpaceHeld = false;
     }
 }
@@ -0,0 +1,73 @@
+public class InputQueue {
+    public static final int PRESS = 0;
+    public static final int RELEASE = 1;
+    public static final int RESET = 2;
+    private static final int CAPACITY = 256;
+    private static final int MASK = CAPACITY - 1;
+
+    private final int[] type = new int[CAPACITY];
+    private final int[] code = new int[CAPACITY];
+    private final long[] whenMs = new long[CAPACITY];
+    private final long[] stampNs = new long[CAPACITY];
+    private volatile long tail = 0;
+    private volatile long head = 0;
+    private volatile int dropped = 0;
+
+    private final long[] down = new long[4];
+
+    public boolean offer(int eventType, int keyCode, long when, long stamp) {
+        long t = tail;
+        if (t - head >= CAPACITY) {
+            dropped++;
+            return false;
+        }
+        int slot = (int) (t & MASK);
+        type[slot] = eventType;
+        code[slot] = keyCode;
+        whenMs[slot] = when;
+        stampNs[slot] = stamp;
+        tail = t + 1;
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return head == tail;
+    }
+
+    public int type() {
+        return type[(int) (head & MASK)];
+    }
+
+    public int code() {
+        return code[(int) (head & MASK)];
+    }
+
+    public long whenMs() {
+        return whenMs[(int) (head & MASK)];
+    }
+
+    public long stampNs() {
+        return stampNs[(int) (head & MASK)];
+    }
+
+    public void advance() {
+        head = head + 1;
+    }
+
+    public boolean isDown(int keyCode) {
+        return keyCode >= 0 && keyCode < 256 && (down[keyCode >> 6] & (1L << keyCode)) != 0;
+    }
+
+    public void setDown(int keyCode, boolean pressed) {
+        if (keyCode < 0 || keyCode >= 256)
+            return;
+        if (pressed)
+            down[keyCode >> 6] |= 1L << keyCode;
+        else
+            down[keyCode >> 6] &= ~(1L << keyCode);
+    }
+
+    public int dropped() {
+        return dropped;
+    }
+}
@@ -1,11 +1,12 @@
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 public class KeyAtlas {
+    private static final int MAX_SCALE = PixelBlit.MAX_LEVEL;
+
     private static class Frames {
         BufferedImage normal, pressed;
         Frames(BufferedImage n, BufferedImage p) {
@@ -13,16 +14,25 @@ public class KeyAtlas {
             pressed = p;
         }
     }
+
+    private static class Scaled {
+        final int scale;
+        final Map<Frames, TextureAtlas.Region[]> regions = new IdentityHashMap<>();
+        Scaled(int scale) {
+            this.scale = scale;
+        }
+    }
     
     private final Map<Character, Frames> map = new HashMap<>();
+    private volatile Scaled scaled;
     private Dimension baseSize = new Dimension(34, 16);
+    private final Frames fallbackFrames;
     
     public KeyAtlas(String dir, String ext, boolean twoFrames, String chars) {
         for (char raw : chars.toCharArray()) {
             char c = Character.toUpperCase(raw);
-            File f = new File(dir, c + ext);
             try {
-                BufferedImage img = ImageIO.read(f);
+                BufferedImage img = AssetPack.image(dir + "/" + c + ext);
                 if (img == null) continue;
                 if (twoFrames) {
                     int w = img.getWidth() / 2, h = img.getHeight();
@@ -34,6 +44,8 @@ public class KeyAtlas {
                 }
             } catch (Exception ignored) {}
         }
+        BufferedImage img = fallback();
+        fallbackFrames = new Frames(img, img);
     }
     
     public boolean isReady() {
@@ -45,13 +57,53 @@ public class KeyAtlas {
     }
     
     public BufferedImage getNormal(char c) {
-        Frames f = map.get(Character.toUpperCase(c));
-        return f != null ? f.normal : fallback();
+        return frames(c).normal;
     }
     
     public BufferedImage getPressed(char c) {
+        return frames(c).pressed;
+    }
+
+    public TextureAtlas.Region getNormal(char c, int scale) {
+        return scaled(c, scale)[0];
+    }
+
+    public TextureAtlas.Region getPressed(char c, int scale) {
+        return scaled(c, scale)[1];
+    }
+
+    public synchronized void prescale(int scale) {
+        scale = Math.max(1, Math.min(MAX_SCALE, scale));
+        Scaled s = scaled;
+        if (s != null && s.scale == scale)
+            return;
+        s = new Scaled(scale);
+        TextureAtlas atlas = new TextureAtlas(1024);
+        for (Frames f : map.values())
+            s.regions.put(f, scale(f, scale, atlas));
+        s.regions.put(fallbackFrames, scale(fallbackFrames, scale, atlas));
+        scaled = s;
+    }
+
+    private TextureAtlas.Region[] scaled(char c, int scale) {
+        scale = Math.max(1, Math.min(MAX_SCALE, scale));
+        Scaled s = scaled;
+        if (s == null || s.scale != scale) {
+            prescale(scale);
+            s = scaled;
+        }
+        return s.regions.get(frames(c));
+    }
+
+    private static TextureAtlas.Region[] scale(Frames f, int scale, TextureAtlas atlas) {
+        TextureAtlas.Region normal = atlas.add(Images.scaled(f.normal, scale));
+        TextureAtlas.Region pressed = f.pressed == f.normal ? normal : atlas.add(Images.scaled(f.pressed, scale));
+        return new TextureAtlas.Region[] { normal, pressed };
+    }
+
+    private Frames frames(char c) {
         Frames f = map.get(Character.toUpperCase(c));
-        return f != null ? f.pressed : fallback();
+        return f != null ? f : fallbackFrames;
     }
     
     private BufferedImage fallback() {
@@ -0,0 +1,61 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Locale;
+
+public class KeyRenderBenchmark {
+    private static final int WARMUP_FRAMES = 2000;
+    private static final int FRAMES = 5000;
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        KeyAtlas atlas = new KeyAtlas(
+                GameConfig.ASSETS_DIR,
+                GameConfig.FILE_EXT,
+                GameConfig.TWO_FRAMES_PER_FILE,
+                GameConfig.CHAR_SET);
+        atlas.prescale(GameConfig.SCALE);
+
+        BufferedImage target = Images.compatible(GameConfig.BASE_WIDTH, GameConfig.BASE_HEIGHT);
+        for (String word : new String[] { "KEYBOARDIN", "ABCDEFGHIJKLMNOPQRST" }) {
+            long scaledNs = run(atlas, target, word, false);
+            long blitNs = run(atlas, target, word, true);
+            System.out.printf(Locale.US, "%2d letters: scaled drawImage %8.1f us/frame, atlas blit %8.1f us/frame, saved %5.1f%%%n",
+                    word.length(),
+                    scaledNs / 1000.0,
+                    blitNs / 1000.0,
+                    100.0 * (scaledNs - blitNs) / Math.max(1, scaledNs));
+        }
+    }
+
+    private static long run(KeyAtlas atlas, BufferedImage target, String word, boolean prescaled) {
+        Graphics2D g = target.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        for (int i = 0; i < WARMUP_FRAMES; i++)
+            drawRow(g, atlas, word, i % word.length(), prescaled);
+        long start = System.nanoTime();
+        for (int i = 0; i < FRAMES; i++)
+            drawRow(g, atlas, word, i % word.length(), prescaled);
+        long elapsed = System.nanoTime() - start;
+        g.dispose();
+        return elapsed / FRAMES;
+    }
+
+    private static void drawRow(Graphics2D g, KeyAtlas atlas, String word, int idx, boolean prescaled) {
+        Dimension keyDim = atlas.keySize();
+        int keyW = keyDim.width * GameConfig.SCALE;
+        int keyH = keyDim.height * GameConfig.SCALE;
+        int x0 = 10;
+        int y = 200;
+        for (int i = 0; i < word.length(); i++) {
+            char ch = word.charAt(i);
+            int x = (x0 + i * (keyW + GameConfig.KEY_SPACING)) % (GameConfig.BASE_WIDTH - keyW);
+            if (prescaled) {
+                TextureAtlas.Region r = i < idx ? atlas.getPressed(ch, GameConfig.SCALE) : atlas.getNormal(ch, GameConfig.SCALE);
+                r.draw(g, x, y);
+            } else {
+                BufferedImage img = i < idx ? atlas.getPressed(ch) : atlas.getNormal(ch);
+                g.drawImage(img, x, y, keyW, keyH, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+public class KeystrokeTelemetry {
+    public static final String EXPORT_PATH = "./keystrokes.csv";
+    public static final int ACCURACY_WINDOW = 50;
+    private static final int CAPACITY = 1 << 12;
+    private static final int MASK = CAPACITY - 1;
+    private static final long SHORT_NS = 5_000_000_000L;
+    private static final long LONG_NS = 15_000_000_000L;
+    private static final long MIN_SPAN_NS = 2_000_000_000L;
+
+    public static class Snapshot {
+        public double wpm, wpm5s, wpm15s, burstWpm;
+        public double accuracy, recentAccuracy;
+        public int keys, correct, mistakes;
+        public long elapsedMs;
+    }
+
+    private final long[] timeNs = new long[CAPACITY];
+    private final char[] expected = new char[CAPACITY];
+    private final char[] typed = new char[CAPACITY];
+    private final boolean[] hit = new boolean[CAPACITY];
+    private final int[] wordIndex = new int[CAPACITY];
+
+    private long head = 0, tail5 = 0, tail15 = 0;
+    private int correct = 0, correct5 = 0, correct15 = 0, recentCorrect = 0;
+    private double burstWpm = 0;
+    private long roundStartNs = 0, roundEndNs = 0;
+    private boolean running = false;
+
+    public synchronized void startRound(long nowNs) {
+        head = tail5 = tail15 = 0;
+        correct = correct5 = correct15 = recentCorrect = 0;
+        burstWpm = 0;
+        roundStartNs = nowNs;
+        roundEndNs = 0;
+        running = true;
+    }
+
+    public synchronized void endRound(long nowNs) {
+        if (running) {
+            roundEndNs = nowNs;
+            running = false;
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    public synchronized void record(long nowNs, char expectedChar, char typedChar, boolean ok, int word) {
+        if (!running)
+            return;
+        int i = (int) (head & MASK);
+        timeNs[i] = nowNs;
+        expected[i] = expectedChar;
+        typed[i] = typedChar;
+        hit[i] = ok;
+        wordIndex[i] = word;
+        head++;
+        if (ok) {
+            correct++;
+            correct5++;
+            correct15++;
+            recentCorrect++;
+        }
+        if (head > ACCURACY_WINDOW && hit[(int) ((head - 1 - ACCURACY_WINDOW) & MASK)])
+            recentCorrect--;
+        expire(nowNs);
+        burstWpm = Math.max(burstWpm, wpm(correct5, SHORT_NS, nowNs));
+    }
+
+    public synchronized void snapshot(long nowNs, Snapshot out) {
+        long now = running ? nowNs : roundEndNs;
+        if (roundStartNs == 0) {
+            out.wpm = out.wpm5s = out.wpm15s = out.burstWpm = 0;
+            out.accuracy = out.recentAccuracy = 100;
+            out.keys = out.correct = out.mistakes = 0;
+            out.elapsedMs = 0;
+            return;
+        }
+        expire(now);
+        double minutes = Math.max(1e-6, (now - roundStartNs) / 60e9);
+        int recent = (int) Math.min(head, ACCURACY_WINDOW);
+        out.wpm = correct / 5.0 / minutes;
+        out.wpm5s = wpm(correct5, SHORT_NS, now);
+        out.wpm15s = wpm(correct15, LONG_NS, now);
+        out.burstWpm = burstWpm;
+        out.accuracy = head == 0 ? 100 : 100.0 * correct / head;
+        out.recentAccuracy = recent == 0 ? 100 : 100.0 * recentCorrect / recent;
+        out.keys = (int) head;
+        out.correct = correct;
+        out.mistakes = (int) head - correct;
+        out.elapsedMs = (now - roundStartNs) / 1_000_000;
+    }
+
+    private void expire(long nowNs) {
+        long oldest = Math.max(0, head - CAPACITY);
+        tail5 = Math.max(tail5, oldest);
+        tail15 = Math.max(tail15, oldest);
+        while (tail5 < head && timeNs[(int) (tail5 & MASK)] <= nowNs - SHORT_NS) {
+            if (hit[(int) (tail5 & MASK)])
+                correct5--;
+            tail5++;
+        }
+        while (tail15 < head && timeNs[(int) (tail15 & MASK)] <= nowNs - LONG_NS) {
+            if (hit[(int) (tail15 & MASK)])
+                correct15--;
+            tail15++;
+        }
+    }
+
+    private double wpm(int chars, long windowNs, long nowNs) {
+        long span = Math.max(MIN_SPAN_NS, Math.min(windowNs, nowNs - roundStartNs));
+        return chars / 5.0 / (span / 60e9);
+    }
+
+    public void export() {
+        Snapshot s = new Snapshot();
+        long first, start;
+        int n;
+        long[] t;
+        char[] exp, typ;
+        boolean[] ok;
+        int[] word;
+        synchronized (this) {
+            snapshot(System.nanoTime(), s);
+            first = Math.max(0, head - CAPACITY);
+            start = roundStartNs;
+            n = (int) (head - first);
+            t = new long[n];
+            exp = new char[n];
+            typ = new char[n];
+            ok = new boolean[n];
+            word = new int[n];
+            for (int k = 0; k < n; k++) {
+                int i = (int) ((first + k) & MASK);
+                t[k] = timeNs[i];
+                exp[k] = expected[i];
+                typ[k] = typed[i];
+                ok[k] = hit[i];
+                word[k] = wordIndex[i];
+            }
+        }
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(Paths.get(EXPORT_PATH), StandardCharsets.UTF_8))) {
+            w.println("t_ms,word,expected,typed,correct");
+            for (int k = 0; k < n; k++)
+                w.printf(Locale.US, "%.3f,%d,%s,%c,%d%n", (t[k] - start) / 1e6, word[k],
+                        exp[k] == 0 ? "" : String.valueOf(exp[k]), typ[k], ok[k] ? 1 : 0);
+        } catch (Exception e) {
+            System.err.println("Could not write " + EXPORT_PATH + ": " + e.getMessage());
+            return;
+        }
+        System.out.printf(Locale.US,
+                "Round %.1f s: %d keys, %.1f WPM (5s %.1f, 15s %.1f, peak %.1f), accuracy %.1f%% (last %d %.1f%%)%s written to %s%n",
+                s.elapsedMs / 1000.0, s.keys, s.wpm, s.wpm5s, s.wpm15s, s.burstWpm, s.accuracy, ACCURACY_WINDOW,
+                s.recentAccuracy, first > 0 ? ", oldest " + first + " keys dropped," : "", EXPORT_PATH);
+    }
+}
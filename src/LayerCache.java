@@ -0,0 +1,66 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Objects;
+
+public class LayerCache {
+    private BufferedImage image;
+    private boolean valid = false;
+    private long stamp;
+    private final Object[] keys = new Object[4];
+    private int x, y, w, h;
+    private int pw, ph;
+    private int rebuilds = 0;
+
+    public static long mix(long hash, long value) {
+        return hash * 0x9E3779B97F4A7C15L + value;
+    }
+
+    public boolean isValid(long stamp) {
+        return valid && this.stamp == stamp;
+    }
+
+    public boolean isValid(long stamp, Object k0, Object k1, Object k2, Object k3) {
+        return isValid(stamp) && Objects.equals(keys[0], k0) && Objects.equals(keys[1], k1)
+                && Objects.equals(keys[2], k2) && Objects.equals(keys[3], k3);
+    }
+
+    public void keys(Object k0, Object k1, Object k2, Object k3) {
+        keys[0] = k0;
+        keys[1] = k1;
+        keys[2] = k2;
+        keys[3] = k3;
+    }
+
+    public Graphics2D begin(int x, int y, int w, int h, double scale, long stamp) {
+        this.x = x;
+        this.y = y;
+        this.w = Math.max(1, w);
+        this.h = Math.max(1, h);
+        this.pw = (int) Math.ceil(this.w * scale);
+        this.ph = (int) Math.ceil(this.h * scale);
+        if (image == null || image.getWidth() < pw || image.getHeight() < ph)
+            image = Images.compatible(pw, ph);
+
+        Graphics2D g = image.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.setComposite(AlphaComposite.SrcOver);
+        g.scale(scale, scale);
+        g.translate(-x, -y);
+
+        this.stamp = stamp;
+        this.valid = true;
+        rebuilds++;
+        return g;
+    }
+
+    public void draw(Graphics2D g) {
+        if (!valid)
+            return;
+        g.drawImage(image, x, y, x + w, y + h, 0, 0, pw, ph, null);
+    }
+
+    public int rebuilds() {
+        return rebuilds;
+    }
+}
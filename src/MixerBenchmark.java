@@ -0,0 +1,29 @@
+import java.util.Locale;
+
+public class MixerBenchmark {
+    private static final int BLOCKS = 20000;
+
+    public static void main(String[] args) throws Exception {
+        AudioMixer mixer = new AudioMixer();
+        AudioMixer.Sound s = mixer.load(args.length > 0 ? args[0] : "./res/wav/slash1.wav",
+                AudioMixer.SFX, AudioMixer.MAX_VOICES);
+        float blockUs = AudioMixer.BLOCK_FRAMES * 1_000_000f / AudioMixer.RATE;
+
+        System.out.printf(Locale.US, "block %d frames = %.0f us, line buffer %d frames, latency %.1f ms%n",
+                AudioMixer.BLOCK_FRAMES, blockUs, AudioMixer.LINE_FRAMES, mixer.latencyMs());
+        System.out.printf("%8s %12s %12s%n", "voices", "us/block", "load %");
+        for (int n : new int[] { 1, 4, 8, 16, 32 }) {
+            for (int pass = 0; pass < 2; pass++) {
+                long t0 = System.nanoTime();
+                for (int b = 0; b < BLOCKS; b++) {
+                    while (mixer.activeVoices() < n)
+                        mixer.playNow(s);
+                    mixer.mixBlock();
+                }
+                double us = (System.nanoTime() - t0) / 1000.0 / BLOCKS;
+                if (pass == 1)
+                    System.out.printf(Locale.US, "%8d %12.2f %12.2f%n", n, us, us * 100 / blockUs);
+            }
+        }
+    }
+}
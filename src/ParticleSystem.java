@@ -0,0 +1,224 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+public class ParticleSystem {
+    public static final int MAX_PARTICLES = 4096;
+    public static final int MAX_SPRITES = 128;
+
+    private static final int HIT_FRAMES = 8;
+    private static final int HIT_FRAME_MS = 25;
+    private static final int HIT_SCALE = 3;
+    private static final float MAX_DT = 0.1f;
+    private static final int ALPHA_STEPS = 8;
+
+    public static final int SPARK = 0;
+    public static final int EMBER = 1;
+    public static final int WHITE = 2;
+    public static final int CYAN = 3;
+    public static final int GREEN = 4;
+    public static final int PINK = 5;
+    private static final Color[] BASE_COLORS = {
+            new Color(255, 230, 120),
+            new Color(255, 140, 60),
+            new Color(255, 255, 255),
+            new Color(100, 200, 255),
+            new Color(150, 255, 150),
+            new Color(255, 150, 255),
+    };
+    private static final Color[] PALETTE = new Color[BASE_COLORS.length * ALPHA_STEPS];
+
+    static {
+        for (int c = 0; c < BASE_COLORS.length; c++) {
+            Color base = BASE_COLORS[c];
+            for (int a = 0; a < ALPHA_STEPS; a++) {
+                int alpha = 255 * (a + 1) / ALPHA_STEPS;
+                PALETTE[c * ALPHA_STEPS + a] = new Color(base.getRed(), base.getGreen(), base.getBlue(), alpha);
+            }
+        }
+    }
+
+    private final float[] px = new float[MAX_PARTICLES];
+    private final float[] py = new float[MAX_PARTICLES];
+    private final float[] vx = new float[MAX_PARTICLES];
+    private final float[] vy = new float[MAX_PARTICLES];
+    private final float[] gravity = new float[MAX_PARTICLES];
+    private final float[] life = new float[MAX_PARTICLES];
+    private final float[] ttl = new float[MAX_PARTICLES];
+    private final int[] color = new int[MAX_PARTICLES];
+    private final int[] size = new int[MAX_PARTICLES];
+    private int particles = 0;
+
+    private final int[] sx = new int[MAX_SPRITES];
+    private final int[] sy = new int[MAX_SPRITES];
+    private final long[] sStart = new long[MAX_SPRITES];
+    private int sprites = 0;
+
+    private final Random rng = new Random();
+    private final TextureAtlas.Region[][] hitLevels = new TextureAtlas.Region[PixelBlit.MAX_LEVEL + 1][];
+    private BufferedImage hitSheet;
+    private TextureAtlas.Region[] baseFrames = new TextureAtlas.Region[0];
+    private long lastUpdate = 0;
+    private long now = 0;
+    private int minX, minY, maxX, maxY;
+
+    public ParticleSystem(String hitSheetPath) {
+        try {
+            hitSheet = AssetPack.image(hitSheetPath);
+            baseFrames = hitFrames(HIT_SCALE);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        clearBounds();
+    }
+
+    public void spawnHit(int x, int y) {
+        if (sprites < MAX_SPRITES && baseFrames.length > 0) {
+            sx[sprites] = x;
+            sy[sprites] = y;
+            sStart[sprites] = System.currentTimeMillis();
+            sprites++;
+            include(x, y, baseFrames[0].width / 2 + 1);
+        }
+        emit(x, y, 10, 60, 180, 0.25f, 0.45f, SPARK, 3, 300);
+    }
+
+    public void spawnBurst(int x, int y) {
+        emit(x, y, 8, 40, 120, 0.2f, 0.4f, WHITE, 2, 200);
+        emit(x, y, 4, 30, 90, 0.3f, 0.5f, CYAN, 3, 200);
+    }
+
+    public void spawnExplosion(int x, int y) {
+        emit(x, y, 40, 120, 320, 0.5f, 0.9f, SPARK, 4, 260);
+        emit(x, y, 30, 80, 260, 0.6f, 1.1f, EMBER, 3, 260);
+        emit(x, y, 20, 60, 200, 0.4f, 0.8f, GREEN, 3, 120);
+    }
+
+    private void emit(int x, int y, int n, float speedMin, float speedMax, float ttlMin, float ttlMax,
+            int colorIdx, int pixelSize, float g) {
+        for (int k = 0; k < n && particles < MAX_PARTICLES; k++) {
+            int i = particles++;
+            double angle = rng.nextDouble() * Math.PI * 2;
+            float speed = speedMin + rng.nextFloat() * (speedMax - speedMin);
+            px[i] = x;
+            py[i] = y;
+            vx[i] = (float) Math.cos(angle) * speed;
+            vy[i] = (float) Math.sin(angle) * speed - speed * 0.5f;
+            gravity[i] = g;
+            ttl[i] = ttlMin + rng.nextFloat() * (ttlMax - ttlMin);
+            life[i] = ttl[i];
+            color[i] = colorIdx;
+            size[i] = pixelSize;
+        }
+        include(x, y, pixelSize);
+    }
+
+    public void update(long nowMs) {
+        now = nowMs;
+        float dt = lastUpdate == 0 ? 0 : Math.min(MAX_DT, (nowMs - lastUpdate) / 1000f);
+        lastUpdate = nowMs;
+        clearBounds();
+
+        int duration = HIT_FRAMES * HIT_FRAME_MS;
+        int half = baseFrames.length > 0 ? baseFrames[0].width / 2 + 1 : 0;
+        for (int i = 0; i < sprites;) {
+            if (nowMs - sStart[i] >= duration) {
+                int last = --sprites;
+                sx[i] = sx[last];
+                sy[i] = sy[last];
+                sStart[i] = sStart[last];
+                continue;
+            }
+            include(sx[i], sy[i], half);
+            i++;
+        }
+
+        for (int i = 0; i < particles;) {
+            life[i] -= dt;
+            if (life[i] <= 0) {
+                int last = --particles;
+                px[i] = px[last];
+                py[i] = py[last];
+                vx[i] = vx[last];
+                vy[i] = vy[last];
+                gravity[i] = gravity[last];
+                life[i] = life[last];
+                ttl[i] = ttl[last];
+                color[i] = color[last];
+                size[i] = size[last];
+                continue;
+            }
+            vy[i] += gravity[i] * dt;
+            px[i] += vx[i] * dt;
+            py[i] += vy[i] * dt;
+            include((int) px[i], (int) py[i], size[i]);
+            i++;
+        }
+    }
+
+    private TextureAtlas.Region[] hitFrames(int level) {
+        TextureAtlas.Region[] frames = hitLevels[level];
+        if (frames == null) {
+            frames = Sprite.slice(hitSheet, HIT_FRAMES, level, false, TextureAtlas.shared());
+            hitLevels[level] = frames;
+        }
+        return frames;
+    }
+
+    public void draw(Graphics2D g2, PixelBlit blit) {
+        int duration = HIT_FRAMES * HIT_FRAME_MS;
+        if (sprites > 0 && hitSheet != null) {
+            blit.begin(g2);
+            TextureAtlas.Region[] frames = hitFrames(blit.level(HIT_SCALE));
+            for (int i = 0; i < sprites; i++) {
+                int frame = (int) Math.min(HIT_FRAMES - 1, Math.max(0, now - sStart[i]) * HIT_FRAMES / duration);
+                blit.drawCentered(frames[Math.min(frame, frames.length - 1)], sx[i], sy[i]);
+            }
+            blit.end();
+        }
+
+        int lastColor = -1;
+        for (int i = 0; i < particles; i++) {
+            int a = (int) (life[i] / ttl[i] * (ALPHA_STEPS - 1));
+            int c = color[i] * ALPHA_STEPS + Math.max(0, Math.min(ALPHA_STEPS - 1, a));
+            if (c != lastColor) {
+                g2.setColor(PALETTE[c]);
+                lastColor = c;
+            }
+            int s = size[i];
+            g2.fillRect((int) px[i] - s / 2, (int) py[i] - s / 2, s, s);
+        }
+    }
+
+    public boolean isActive() {
+        return sprites > 0 || particles > 0;
+    }
+
+    public int liveParticles() {
+        return particles;
+    }
+
+    public void bounds(Rectangle out) {
+        if (maxX < minX) {
+            out.setBounds(0, 0, -1, -1);
+            return;
+        }
+        out.setBounds(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    private void clearBounds() {
+        minX = minY = Integer.MAX_VALUE;
+        maxX = maxY = Integer.MIN_VALUE;
+    }
+
+    private void include(int x, int y, int radius) {
+        if (x - radius < minX)
+            minX = x - radius;
+        if (y - radius < minY)
+            minY = y - radius;
+        if (x + radius > maxX)
+            maxX = x + radius;
+        if (y + radius > maxY)
+            maxY = y + radius;
+    }
+}
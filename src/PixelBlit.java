@@ -0,0 +1,75 @@
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+
+public class PixelBlit {
+    public static final int MAX_LEVEL = 16;
+
+    private final AffineTransform saved = new AffineTransform();
+    private final AffineTransform device = new AffineTransform();
+    private Graphics2D g;
+    private double scale = 1.0;
+    private boolean direct = true;
+
+    public static int level(int baseScale, double pixelScale) {
+        return Math.max(1, Math.min(MAX_LEVEL, (int) Math.round(baseScale * pixelScale)));
+    }
+
+    public void begin(Graphics2D g) {
+        this.g = g;
+        saved.setTransform(g.getTransform());
+        scale = saved.getScaleX();
+        direct = saved.getShearX() == 0 && saved.getShearY() == 0
+                && scale == 1.0 && saved.getScaleY() == 1.0;
+    }
+
+    public int level(int baseScale) {
+        return level(baseScale, scale);
+    }
+
+    public void draw(TextureAtlas.Region r, int x, int y) {
+        if (direct) {
+            r.draw(g, x, y);
+            return;
+        }
+        device.setToTranslation(
+                Math.round(saved.getScaleX() * x + saved.getTranslateX()),
+                Math.round(saved.getScaleY() * y + saved.getTranslateY()));
+        g.setTransform(device);
+        r.draw(g, 0, 0);
+        g.setTransform(saved);
+    }
+
+    public void drawCentered(TextureAtlas.Region r, int cx, int cy) {
+        if (direct) {
+            r.draw(g, cx - r.width / 2, cy - r.height / 2);
+            return;
+        }
+        device.setToTranslation(
+                Math.round(saved.getScaleX() * cx + saved.getTranslateX()) - r.width / 2,
+                Math.round(saved.getScaleY() * cy + saved.getTranslateY()) - r.height / 2);
+        g.setTransform(device);
+        r.draw(g, 0, 0);
+        g.setTransform(saved);
+    }
+
+    public void drawBottom(TextureAtlas.Region r, int x, int bottom) {
+        if (direct) {
+            r.draw(g, x, bottom - r.height);
+            return;
+        }
+        device.setToTranslation(
+                Math.round(saved.getScaleX() * x + saved.getTranslateX()),
+                Math.round(saved.getScaleY() * bottom + saved.getTranslateY()) - r.height);
+        g.setTransform(device);
+        r.draw(g, 0, 0);
+        g.setTransform(saved);
+    }
+
+    public void drawBottom(TextureAtlas.Region r, int x, int bottom, int width, int height) {
+        r.draw(g, x, bottom - height, width, height);
+    }
+
+    public void end() {
+        g = null;
+    }
+}
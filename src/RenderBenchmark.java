@@ -0,0 +1,214 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+
+public class RenderBenchmark {
+    private static final int WIDTH = GameConfig.BASE_WIDTH;
+    private static final int HEIGHT = GameConfig.BASE_HEIGHT;
+    private static final int WARMUP_FRAMES = Integer.getInteger("bench.warmup", 500);
+    private static final int FRAMES = Integer.getInteger("bench.frames", 3000);
+    private static final Color CLR_BG = new Color(18, 20, 24);
+
+    private interface Scenario {
+        void setup();
+
+        default void frame(int i) {
+        }
+    }
+
+    private static class OffscreenTarget implements RenderTarget {
+        @Override
+        public int getWidth() {
+            return WIDTH;
+        }
+
+        @Override
+        public int getHeight() {
+            return HEIGHT;
+        }
+
+        @Override
+        public double viewScale() {
+            return 1.0;
+        }
+
+        @Override
+        public int viewWidth() {
+            return WIDTH;
+        }
+
+        @Override
+        public int viewHeight() {
+            return HEIGHT;
+        }
+    }
+
+    private final GameState gameState = new GameState();
+    private final UISettings uiSettings = new UISettings();
+    private final AnimationController animController;
+    private final GameRenderer renderer;
+    private final BufferedImage target = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private RenderBenchmark() {
+        uiSettings.ttsEnabled = false;
+        uiSettings.masterVolume = 0;
+        gameState.setUISettings(uiSettings);
+        animController = new AnimationController(gameState, uiSettings);
+        AssetLoader loader = new AssetLoader();
+        uiSettings.loadAssets(loader);
+        gameState.loadAssets(loader);
+        animController.loadCharacters(loader);
+        loader.seal().join();
+        loader.shutdown();
+        uiSettings.layoutSettingsRects(WIDTH, HEIGHT);
+        gameState.updateGroundAndBases(WIDTH, HEIGHT);
+        uiSettings.applyVolumeToPools(gameState);
+        if (gameState.bgMusic != null)
+            gameState.bgMusic.stop();
+        renderer = new GameRenderer(new OffscreenTarget(), gameState, uiSettings);
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        RenderBenchmark b = new RenderBenchmark();
+
+        System.out.printf(Locale.US, "%-26s %12s %12s %12s %14s%n",
+                "scenario", "mean us", "p50 us", "p99 us", "alloc B/frame");
+        b.run("READY idle", b.ready(false));
+        b.run("PLAYING 5 letters", b.playing("TYPES"));
+        b.run("PLAYING 10 letters", b.playing("KEYBOARDIN"));
+        b.run("PLAYING 20 letters", b.playing("ABCDEFGHIJKLMNOPQRST"));
+        b.run("settings overlay open", b.ready(true));
+        b.run("PLAYING + hit effects", b.hitEffects());
+        b.run("PLAYING + 2000 particles", b.particles(2000));
+        b.run("PLAYING + profiler", b.profiled(b.playing("KEYBOARDIN")));
+        System.exit(0);
+    }
+
+    private Scenario ready(boolean settings) {
+        return () -> {
+            gameState.state = GameConfig.State.READY;
+            gameState.current = new WordEntry("HELLO", "HELLO", "เฮลโล", "สวัสดี");
+            gameState.idx = 0;
+            uiSettings.showSettings = settings;
+        };
+    }
+
+    private Scenario playing(String word) {
+        return new Scenario() {
+            @Override
+            public void setup() {
+                gameState.state = GameConfig.State.PLAYING;
+                gameState.current = new WordEntry(word, word, "เทสต์", "ทดสอบ");
+                gameState.startMs = System.currentTimeMillis();
+                gameState.wordStartMs = gameState.startMs;
+                long now = System.nanoTime();
+                gameState.telemetry.startRound(now - 30_000_000_000L);
+                for (int k = 0; k < 44; k++) {
+                    boolean ok = k % 11 != 10;
+                    gameState.telemetry.record(now - (44 - k) * 600_000_000L, 'A', ok ? 'A' : 'S', ok, k / 5);
+                }
+                uiSettings.showSettings = false;
+            }
+
+            @Override
+            public void frame(int i) {
+                gameState.idx = i % word.length();
+            }
+        };
+    }
+
+    private Scenario hitEffects() {
+        Scenario base = playing("KEYBOARDIN");
+        return new Scenario() {
+            @Override
+            public void setup() {
+                base.setup();
+            }
+
+            @Override
+            public void frame(int i) {
+                base.frame(i);
+                if (i % 4 == 0)
+                    gameState.effects.spawnHit(100 + (i * 37) % (WIDTH - 200), 100 + (i * 53) % (HEIGHT - 200));
+                gameState.effects.update(System.currentTimeMillis());
+            }
+        };
+    }
+
+    private Scenario particles(int live) {
+        Scenario base = playing("KEYBOARDIN");
+        return new Scenario() {
+            @Override
+            public void setup() {
+                base.setup();
+            }
+
+            @Override
+            public void frame(int i) {
+                base.frame(i);
+                ParticleSystem fx = gameState.effects;
+                int k = 0;
+                while (fx.liveParticles() < live)
+                    fx.spawnExplosion(150 + (k++ * 97) % (WIDTH - 300), 150 + (i * 31) % (HEIGHT - 300));
+                fx.update(System.currentTimeMillis());
+            }
+        };
+    }
+
+    private Scenario profiled(Scenario base) {
+        return new Scenario() {
+            @Override
+            public void setup() {
+                base.setup();
+                if (!gameState.profiler.enabled)
+                    gameState.profiler.toggle();
+            }
+
+            @Override
+            public void frame(int i) {
+                base.frame(i);
+            }
+        };
+    }
+
+    private void run(String name, Scenario scenario) {
+        scenario.setup();
+        long[] times = new long[FRAMES];
+        for (int i = 0; i < WARMUP_FRAMES; i++)
+            renderOnce(scenario, i);
+
+        long allocStart = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < FRAMES; i++) {
+            long t0 = System.nanoTime();
+            renderOnce(scenario, i);
+            times[i] = System.nanoTime() - t0;
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocStart;
+
+        long sum = 0;
+        for (long t : times)
+            sum += t;
+        Arrays.sort(times);
+        System.out.printf(Locale.US, "%-26s %12.1f %12.1f %12.1f %14d%n",
+                name,
+                sum / (double) FRAMES / 1000.0,
+                times[FRAMES / 2] / 1000.0,
+                times[(int) (FRAMES * 0.99)] / 1000.0,
+                allocated / FRAMES);
+    }
+
+    private void renderOnce(Scenario scenario, int i) {
+        scenario.frame(i);
+        Graphics2D g = target.createGraphics();
+        g.setColor(CLR_BG);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        renderer.render(g);
+        g.dispose();
+        gameState.profiler.endFrame();
+    }
+}
@@ -0,0 +1,11 @@
+public interface RenderTarget {
+    int getWidth();
+
+    int getHeight();
+
+    double viewScale();
+
+    int viewWidth();
+
+    int viewHeight();
+}
@@ -1,12 +1,14 @@
 import com.sun.speech.freetts.Voice;
 import com.sun.speech.freetts.VoiceManager;
+import com.sun.speech.freetts.audio.AudioPlayer;
 
 public class SlowTTS {
     private final Voice voice;
 
     public SlowTTS(String voiceName, float rate) {
-        System.setProperty("freetts.voices",
-                "com.sun.speech.freetts.en.us.cmu_us_kal.KevinVoiceDirectory");
+        if (System.getProperty("freetts.voices") == null)
+            System.setProperty("freetts.voices",
+                    "com.sun.speech.freetts.en.us.cmu_us_kal.KevinVoiceDirectory");
 
         this.voice = VoiceManager.getInstance().getVoice(voiceName);
 
@@ -18,10 +20,20 @@ public class SlowTTS {
     }
 
 
-    public void speak(String text) {
-        if (voice != null) {
-            voice.speak(text);
-        }
+    public boolean speak(String text) {
+        return voice != null && voice.speak(text);
+    }
+
+
+    public void setRate(float rate) {
+        if (voice != null && voice.getRate() != rate)
+            voice.setRate(rate);
+    }
+
+
+    public void setAudioPlayer(AudioPlayer player) {
+        if (voice != null)
+            voice.setAudioPlayer(player);
     }
 
 
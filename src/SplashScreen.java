@@ -1,14 +1,17 @@
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import javax.imageio.ImageIO;
 
 public class SplashScreen {
-    private static final int FADE_DURATION = 2000;
-    private static final int DISPLAY_DURATION = 3000;
+    private static final int FADE_DURATION = 400;
+    private static final Color CLR_BAR_BG = new Color(60, 60, 60);
+    private static final Color CLR_BAR_FILL = new Color(100, 200, 255);
+    private static final Color CLR_LABEL = new Color(200, 200, 200);
+    private static final Color CLR_ERROR = new Color(255, 110, 110);
+    private static final Font FONT_LABEL = new Font(Font.SANS_SERIF, Font.PLAIN, 12);
 
     private int screenWidth;
     private int screenHeight;
+    private final AssetLoader loader;
     private BufferedImage logo;
     private long startTime;
     private boolean isDone = false;
@@ -22,13 +25,14 @@ public class SplashScreen {
 
     private State currentState = State.FADE_IN;
 
-    public SplashScreen(int width, int height) {
+    public SplashScreen(int width, int height, AssetLoader loader) {
         this.screenWidth = width;
         this.screenHeight = height;
+        this.loader = loader;
         startTime = System.currentTimeMillis();
 
         try {
-            logo = ImageIO.read(new File("./res/logo/logo.png"));
+            logo = AssetPack.image("./res/logo/logo.png");
         } catch (Exception e) {
             logo = createDefaultLogo();
         }
@@ -70,7 +74,7 @@ public class SplashScreen {
                 break;
 
             case DISPLAY:
-                if (elapsedTime > DISPLAY_DURATION) {
+                if (loader == null || loader.isReady()) {
                     currentState = State.FADE_OUT;
                     startTime = currentTime;
                 }
@@ -130,9 +134,33 @@ public class SplashScreen {
             g2.drawImage(logo, logoX, logoY, scaledWidth, scaledHeight, null);
         }
 
+        if (loader != null)
+            drawProgress(g2);
+
         g2.setComposite(oldComposite);
     }
 
+    private void drawProgress(Graphics2D g2) {
+        int barW = (int) (screenWidth * 0.4);
+        int barH = 6;
+        int barX = (screenWidth - barW) / 2;
+        int barY = (int) (screenHeight * 0.78);
+
+        g2.setColor(CLR_BAR_BG);
+        g2.fillRoundRect(barX, barY, barW, barH, barH, barH);
+        g2.setColor(CLR_BAR_FILL);
+        g2.fillRoundRect(barX, barY, (int) (barW * loader.progress()), barH, barH, barH);
+
+        String failure = loader.failure();
+        String label = failure != null ? "Failed to load " + failure
+                : loader.isReady() ? "Ready"
+                : "Loading " + loader.currentTask() + "  " + loader.loaded() + "/" + loader.total();
+        g2.setFont(FONT_LABEL);
+        g2.setColor(failure != null ? CLR_ERROR : CLR_LABEL);
+        FontMetrics fm = g2.getFontMetrics();
+        g2.drawString(label, (screenWidth - fm.stringWidth(label)) / 2, barY + barH + 18);
+    }
+
     public boolean isDone() {
         return isDone;
     }
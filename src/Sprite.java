@@ -1,24 +1,46 @@
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 
 public class Sprite {
-    private BufferedImage sheet;
-    private int frames, w, h, frame, msPerFrame;
+    private final TextureAtlas.Region[] frameImages;
+    private int frames, frame, msPerFrame;
     private long lastAt;
     private boolean loop, finished;
 
     public Sprite(BufferedImage sheet, int frames, int msPerFrame, boolean loop) {
-        this.sheet = sheet;
-        this.frames = frames;
+        this(slice(sheet, frames, 1, false, TextureAtlas.shared()), msPerFrame, loop);
+    }
+
+    public Sprite(TextureAtlas.Region[] frameImages, int msPerFrame, boolean loop) {
+        this.frameImages = frameImages;
+        this.frames = frameImages.length;
         this.msPerFrame = msPerFrame;
         this.loop = loop;
-        this.w = sheet.getWidth() / frames;
-        this.h = sheet.getHeight();
         this.frame = 0;
         this.lastAt = System.currentTimeMillis();
         this.finished = false;
     }
 
-    public BufferedImage current() {
+    public static TextureAtlas.Region[] slice(BufferedImage sheet, int frames, int scale, boolean flipX,
+            TextureAtlas atlas) {
+        frames = Math.max(1, frames);
+        scale = Math.max(1, scale);
+        int w = Math.max(1, sheet.getWidth() / frames);
+        int h = sheet.getHeight();
+        TextureAtlas.Region[] out = new TextureAtlas.Region[frames];
+        for (int i = 0; i < frames; i++) {
+            int sx = Math.min(i * w, sheet.getWidth() - w);
+            BufferedImage sub = sheet.getSubimage(sx, 0, w, h);
+            Rectangle trim = Images.opaqueBounds(sub);
+            BufferedImage trimmed = sub.getSubimage(trim.x, trim.y, trim.width, trim.height);
+            int ox = flipX ? w - trim.x - trim.width : trim.x;
+            out[i] = atlas.add(Images.scaled(trimmed, scale, flipX),
+                    ox * scale, trim.y * scale, w * scale, h * scale);
+        }
+        return out;
+    }
+
+    public TextureAtlas.Region current() {
         long now = System.currentTimeMillis();
         if (now - lastAt >= msPerFrame) {
             lastAt = now;
@@ -28,10 +50,20 @@ public class Sprite {
                 else { frame = frames - 1; finished = true; }
             }
         }
-        return sheet.getSubimage(frame * w, 0, w, h);
+        return frameImages[frame];
+    }
+
+    public TextureAtlas.Region peek() {
+        return frameImages[frame];
     }
 
     public boolean finishedOnce() { return finished; }
 
+    public void follow(Sprite prev) {
+        frame = Math.min(prev.frame, frames - 1);
+        lastAt = prev.lastAt;
+        finished = prev.finished;
+    }
+
     public void reset() { frame = 0; finished = false; lastAt = System.currentTimeMillis(); }
 }
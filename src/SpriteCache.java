@@ -0,0 +1,117 @@
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class SpriteCache {
+    public static final long DEFAULT_BUDGET = 64L * 1024 * 1024;
+    private static final SpriteCache SHARED = new SpriteCache(DEFAULT_BUDGET);
+
+    private static class Entry {
+        final CompletableFuture<BufferedImage> image;
+        long bytes = 0;
+
+        Entry(CompletableFuture<BufferedImage> image) {
+            this.image = image;
+        }
+    }
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(32, 0.75f, true);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "sprite-cache");
+        t.setDaemon(true);
+        return t;
+    });
+    private final long budget;
+    private long bytes = 0;
+    private int hits = 0, misses = 0;
+
+    public SpriteCache(long budgetBytes) {
+        this.budget = budgetBytes;
+    }
+
+    public static SpriteCache shared() {
+        return SHARED;
+    }
+
+    public CompletableFuture<BufferedImage> request(String path) {
+        return request(path, executor);
+    }
+
+    public synchronized CompletableFuture<BufferedImage> request(String path, Executor decoder) {
+        Entry e = entries.get(path);
+        if (e != null) {
+            hits++;
+            return e.image;
+        }
+        misses++;
+        Entry created = new Entry(new CompletableFuture<>());
+        entries.put(path, created);
+        decoder.execute(() -> {
+            BufferedImage img = read(path);
+            loaded(path, created, img);
+            created.image.complete(img);
+        });
+        return created.image;
+    }
+
+    public BufferedImage getNow(String path) {
+        return request(path).getNow(null);
+    }
+
+    public BufferedImage get(String path) {
+        return request(path).join();
+    }
+
+    private static BufferedImage read(String path) {
+        try {
+            return AssetPack.image(path);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private synchronized void loaded(String path, Entry e, BufferedImage img) {
+        if (entries.get(path) != e)
+            return;
+        e.bytes = img == null ? 0 : (long) img.getWidth() * img.getHeight() * 4;
+        bytes += e.bytes;
+        evict(e);
+    }
+
+    private void evict(Entry keep) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (bytes > budget && it.hasNext()) {
+            Entry e = it.next().getValue();
+            if (e == keep || !e.image.isDone())
+                continue;
+            bytes -= e.bytes;
+            it.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized int hits() {
+        return hits;
+    }
+
+    public synchronized int misses() {
+        return misses;
+    }
+}
@@ -0,0 +1,71 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+public class StartupBenchmark {
+    private static final int RUNS = Integer.getInteger("bench.runs", 5);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("child")) {
+            child();
+            return;
+        }
+
+        if (!new File(AssetPack.PACK_PATH).isFile())
+            AssetPack.build(AssetPack.RES_DIR, AssetPack.PACK_PATH);
+
+        System.out.printf("%-8s %14s %14s %14s%n", "source", "cold ms", "warm p50 ms", "warm min ms");
+        for (boolean packed : new boolean[] { false, true }) {
+            long[] runs = new long[RUNS + 1];
+            for (int i = 0; i < runs.length; i++)
+                runs[i] = spawn(packed);
+            long[] warm = Arrays.copyOfRange(runs, 1, runs.length);
+            Arrays.sort(warm);
+            System.out.printf(Locale.US, "%-8s %14d %14d %14d%n", packed ? "pack" : "res",
+                    runs[0], warm[warm.length / 2], warm[0]);
+        }
+    }
+
+    private static long spawn(boolean packed) throws Exception {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        cmd.add("-Djava.awt.headless=true");
+        cmd.add("-Dtyping.pack=" + packed);
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add(StartupBenchmark.class.getName());
+        cmd.add("child");
+        Process p = new ProcessBuilder(cmd).redirectErrorStream(true).start();
+        long result = -1;
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                if (line.startsWith("ready "))
+                    result = Long.parseLong(line.substring(6).trim());
+            }
+        }
+        p.waitFor();
+        return result;
+    }
+
+    private static void child() {
+        UISettings uiSettings = new UISettings();
+        GameState gameState = new GameState();
+        uiSettings.ttsEnabled = false;
+        uiSettings.masterVolume = 0;
+        gameState.setUISettings(uiSettings);
+        AnimationController animController = new AnimationController(gameState, uiSettings);
+        AssetLoader loader = new AssetLoader();
+        uiSettings.loadAssets(loader);
+        gameState.loadAssets(loader);
+        animController.loadCharacters(loader);
+        loader.seal().join();
+        System.out.println("ready " + ManagementFactory.getRuntimeMXBean().getUptime());
+        System.exit(0);
+    }
+}
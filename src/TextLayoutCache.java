@@ -0,0 +1,95 @@
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextLayout;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class TextLayoutCache {
+    private static final FontRenderContext FRC = new FontRenderContext(null, true, false);
+
+    public static class WordLayout {
+        public final Font titleFont, subFont;
+        public final TextLayout title, sub;
+        public final float titleWidth, subWidth;
+
+        WordLayout(WordEntry e, Font titleFont, Font subFont) {
+            this.titleFont = titleFont;
+            this.subFont = subFont;
+            String t = e.display.toUpperCase(Locale.US);
+            String s = e.pronun + " • " + e.meaning;
+            this.title = t.isEmpty() ? null : new TextLayout(t, titleFont, FRC);
+            this.sub = s.isEmpty() ? null : new TextLayout(s, subFont, FRC);
+            this.titleWidth = title == null ? 0 : title.getAdvance();
+            this.subWidth = sub == null ? 0 : sub.getAdvance();
+        }
+    }
+
+    private final int capacity;
+    private final Map<WordEntry, WordLayout> map;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "text-layout");
+        t.setDaemon(true);
+        return t;
+    });
+    private long hits = 0;
+    private long misses = 0;
+
+    public TextLayoutCache(int capacity) {
+        this.capacity = capacity;
+        this.map = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<WordEntry, WordLayout> eldest) {
+                return size() > TextLayoutCache.this.capacity;
+            }
+        };
+    }
+
+    public WordLayout get(WordEntry e, Font titleFont, Font subFont) {
+        if (e == null || titleFont == null || subFont == null)
+            return null;
+        synchronized (this) {
+            WordLayout l = map.get(e);
+            if (l != null && l.titleFont.equals(titleFont) && l.subFont.equals(subFont)) {
+                hits++;
+                return l;
+            }
+            misses++;
+        }
+        WordLayout l = new WordLayout(e, titleFont, subFont);
+        synchronized (this) {
+            map.put(e, l);
+        }
+        return l;
+    }
+
+    public void prefetch(WordEntry e, Font titleFont, Font subFont) {
+        if (e == null || titleFont == null || subFont == null)
+            return;
+        synchronized (this) {
+            WordLayout l = map.get(e);
+            if (l != null && l.titleFont.equals(titleFont) && l.subFont.equals(subFont))
+                return;
+        }
+        worker.execute(() -> {
+            try {
+                WordLayout l = new WordLayout(e, titleFont, subFont);
+                synchronized (this) {
+                    map.put(e, l);
+                }
+            } catch (Exception ignored) {
+            }
+        });
+    }
+
+    public synchronized double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 1.0 : hits / (double) total;
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+}
@@ -0,0 +1,195 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TextureAtlas {
+    public static final int PAGE_SIZE = 2048;
+    private static final int PADDING = 1;
+    private static final TextureAtlas SHARED = new TextureAtlas(PAGE_SIZE);
+
+    private static long frameId = 1;
+    private static int surfacesThisFrame = 0;
+    private static int surfacesLastFrame = 0;
+
+    public static class Region {
+        private final Page page;
+        public final int x, y, w, h;
+        public final int offsetX, offsetY;
+        public final int width, height;
+
+        Region(Page page, int x, int y, int w, int h, int offsetX, int offsetY, int width, int height) {
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.w = w;
+            this.h = h;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+            this.width = width;
+            this.height = height;
+        }
+
+        public void draw(Graphics2D g, int dx, int dy) {
+            if (w == 0 || h == 0)
+                return;
+            touch(page);
+            int px = dx + offsetX, py = dy + offsetY;
+            g.drawImage(page.image, px, py, px + w, py + h, x, y, x + w, y + h, null);
+        }
+
+        public void draw(Graphics2D g, int dx, int dy, int dw, int dh) {
+            if (dw == width && dh == height) {
+                draw(g, dx, dy);
+                return;
+            }
+            if (w == 0 || h == 0 || width == 0 || height == 0)
+                return;
+            touch(page);
+            double sx = dw / (double) width, sy = dh / (double) height;
+            int px = dx + (int) Math.round(offsetX * sx);
+            int py = dy + (int) Math.round(offsetY * sy);
+            int pw = (int) Math.round(w * sx), ph = (int) Math.round(h * sy);
+            g.drawImage(page.image, px, py, px + pw, py + ph, x, y, x + w, y + h, null);
+        }
+    }
+
+    private static class Page {
+        final BufferedImage image;
+        final List<Rectangle> free = new ArrayList<>();
+        long lastFrame = 0;
+
+        Page(int w, int h) {
+            image = Images.compatible(w, h);
+            free.add(new Rectangle(0, 0, w, h));
+        }
+    }
+
+    private final int pageSize;
+    private final List<Page> pages = new ArrayList<>();
+    private final Map<BufferedImage, Region> bySource = new IdentityHashMap<>();
+
+    public TextureAtlas(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public static TextureAtlas shared() {
+        return SHARED;
+    }
+
+    public synchronized Region add(BufferedImage img) {
+        Region r = bySource.get(img);
+        if (r != null)
+            return r;
+        r = add(img, 0, 0, img.getWidth(), img.getHeight());
+        bySource.put(img, r);
+        return r;
+    }
+
+    public synchronized Region add(BufferedImage img, int offsetX, int offsetY, int width, int height) {
+        int w = img.getWidth(), h = img.getHeight();
+        int pw = w + PADDING * 2, ph = h + PADDING * 2;
+
+        Page page = null;
+        Rectangle slot = null;
+        for (Page p : pages) {
+            slot = findSlot(p, pw, ph);
+            if (slot != null) {
+                page = p;
+                break;
+            }
+        }
+        if (slot == null) {
+            page = new Page(Math.max(pageSize, pw), Math.max(pageSize, ph));
+            pages.add(page);
+            slot = findSlot(page, pw, ph);
+        }
+        place(page, slot);
+
+        Graphics2D g = page.image.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(img, slot.x + PADDING, slot.y + PADDING, null);
+        g.dispose();
+
+        return new Region(page, slot.x + PADDING, slot.y + PADDING, w, h, offsetX, offsetY, width, height);
+    }
+
+    public synchronized Region find(BufferedImage img) {
+        return img == null ? null : bySource.get(img);
+    }
+
+    public synchronized int pageCount() {
+        return pages.size();
+    }
+
+    public static void beginFrame() {
+        surfacesLastFrame = surfacesThisFrame;
+        surfacesThisFrame = 0;
+        frameId++;
+    }
+
+    public static int surfacesLastFrame() {
+        return surfacesLastFrame;
+    }
+
+    private static void touch(Page page) {
+        if (page.lastFrame != frameId) {
+            page.lastFrame = frameId;
+            surfacesThisFrame++;
+        }
+    }
+
+    private static Rectangle findSlot(Page page, int w, int h) {
+        Rectangle best = null;
+        int bestShort = Integer.MAX_VALUE, bestLong = Integer.MAX_VALUE;
+        for (Rectangle f : page.free) {
+            if (f.width < w || f.height < h)
+                continue;
+            int dw = f.width - w, dh = f.height - h;
+            int shortSide = Math.min(dw, dh), longSide = Math.max(dw, dh);
+            if (shortSide < bestShort || (shortSide == bestShort && longSide < bestLong)) {
+                best = new Rectangle(f.x, f.y, w, h);
+                bestShort = shortSide;
+                bestLong = longSide;
+            }
+        }
+        return best;
+    }
+
+    private static void place(Page page, Rectangle used) {
+        List<Rectangle> next = new ArrayList<>();
+        for (Rectangle f : page.free) {
+            if (!f.intersects(used)) {
+                next.add(f);
+                continue;
+            }
+            if (used.x > f.x)
+                next.add(new Rectangle(f.x, f.y, used.x - f.x, f.height));
+            if (used.x + used.width < f.x + f.width)
+                next.add(new Rectangle(used.x + used.width, f.y, f.x + f.width - used.x - used.width, f.height));
+            if (used.y > f.y)
+                next.add(new Rectangle(f.x, f.y, f.width, used.y - f.y));
+            if (used.y + used.height < f.y + f.height)
+                next.add(new Rectangle(f.x, used.y + used.height, f.width, f.y + f.height - used.y - used.height));
+        }
+
+        page.free.clear();
+        for (int i = 0; i < next.size(); i++) {
+            Rectangle a = next.get(i);
+            boolean contained = false;
+            for (int j = 0; j < next.size(); j++) {
+                if (i == j)
+                    continue;
+                Rectangle b = next.get(j);
+                if (b.contains(a) && (!a.contains(b) || j < i)) {
+                    contained = true;
+                    break;
+                }
+            }
+            if (!contained)
+                page.free.add(a);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class TtsCache {
+    public static final String PATH = "./tts.cache";
+    private static final int MAGIC = 0x54545343;
+    private static final int VERSION = 1;
+    private static final int HEADER = 16;
+
+    private static class Entry {
+        final float sampleRate;
+        final int offset, samples;
+        final short[] pcm;
+
+        Entry(float sampleRate, int offset, int samples, short[] pcm) {
+            this.sampleRate = sampleRate;
+            this.offset = offset;
+            this.samples = samples;
+            this.pcm = pcm;
+        }
+    }
+
+    private final Map<String, Entry> index = new HashMap<>();
+    private final Path path;
+    private final long signature;
+    private MappedByteBuffer data;
+    private FileChannel appendChannel;
+    private int hits = 0, misses = 0;
+
+    private TtsCache(Path path, long signature) {
+        this.path = path;
+        this.signature = signature;
+    }
+
+    public static TtsCache open(String voiceName, List<WordEntry> words) {
+        TtsCache cache = new TtsCache(Paths.get(PATH), signature(voiceName, words));
+        try {
+            cache.load();
+        } catch (IOException e) {
+            System.err.println("TTS cache unavailable: " + e.getMessage());
+        }
+        return cache;
+    }
+
+    private void load() throws IOException {
+        if (Files.isRegularFile(path)) {
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+                data = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            }
+            if (!parse(data)) {
+                index.clear();
+                data = null;
+                System.err.println("TTS cache is stale or damaged, rebuilding " + path);
+                Files.delete(path);
+            }
+        }
+        if (!Files.isRegularFile(path)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER).putInt(MAGIC).putInt(VERSION).putLong(signature);
+            header.flip();
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                ch.write(header);
+            }
+        }
+        appendChannel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private boolean parse(ByteBuffer buf) {
+        if (buf.limit() < HEADER || buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION || buf.getLong(8) != signature)
+            return false;
+        int pos = HEADER;
+        while (pos < buf.limit()) {
+            if (pos + 2 > buf.limit())
+                return false;
+            int keyLen = buf.getShort(pos) & 0xffff;
+            int body = pos + 2 + keyLen;
+            if (body + 8 > buf.limit())
+                return false;
+            byte[] key = new byte[keyLen];
+            buf.get(pos + 2, key);
+            float rate = buf.getFloat(body);
+            int samples = buf.getInt(body + 4);
+            int pcm = body + 8;
+            if (samples < 0 || pcm + (long) samples * 2 > buf.limit())
+                return false;
+            index.put(new String(key, StandardCharsets.UTF_8), new Entry(rate, pcm, samples, null));
+            pos = pcm + samples * 2;
+        }
+        return true;
+    }
+
+    private static String key(String text, float rate) {
+        return text + "@" + Math.round(rate);
+    }
+
+    public synchronized short[] get(String text, float rate) {
+        Entry e = index.get(key(text, rate));
+        if (e == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        if (e.pcm != null)
+            return e.pcm;
+        short[] pcm = new short[e.samples];
+        data.slice(e.offset, e.samples * 2).asShortBuffer().get(pcm);
+        return pcm;
+    }
+
+    public synchronized float sampleRate(String text, float rate) {
+        Entry e = index.get(key(text, rate));
+        return e == null ? 0 : e.sampleRate;
+    }
+
+    public synchronized void put(String text, float rate, short[] pcm, float sampleRate) {
+        String k = key(text, rate);
+        if (index.containsKey(k))
+            return;
+        index.put(k, new Entry(sampleRate, 0, pcm.length, pcm));
+        if (appendChannel == null)
+            return;
+        try {
+            appendChannel.write(ByteBuffer.wrap(record(k, sampleRate, pcm)));
+        } catch (IOException e) {
+            System.err.println("Could not append to TTS cache: " + e.getMessage());
+        }
+    }
+
+    private static byte[] record(String key, float sampleRate, short[] pcm) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(pcm.length * 2 + 64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF(key);
+        out.writeFloat(sampleRate);
+        out.writeInt(pcm.length);
+        for (short s : pcm)
+            out.writeShort(s);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public synchronized int hits() {
+        return hits;
+    }
+
+    public synchronized int misses() {
+        return misses;
+    }
+
+    static long signature(String voiceName, List<WordEntry> words) {
+        long h = 0xcbf29ce484222325L;
+        String key = voiceName + '\n' + Long.toHexString(CompiledWordBank.contentHash(words));
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    public static void build(String voiceName, int[] rates, int threads) throws Exception {
+        List<WordEntry> words = WordBank.loadWordBank();
+        Set<String> unique = new LinkedHashSet<>();
+        for (WordEntry w : words)
+            unique.add(w.word);
+
+        ThreadLocal<SlowTTS> voices = new ThreadLocal<>();
+        ThreadLocal<TtsPlayer> players = new ThreadLocal<>();
+        List<SlowTTS> allocated = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Map<String, short[]> pcm = new ConcurrentHashMap<>();
+        Map<String, Float> sampleRates = new ConcurrentHashMap<>();
+        List<Future<?>> jobs = new ArrayList<>();
+        long t0 = System.nanoTime();
+        for (int rate : rates) {
+            for (String word : unique) {
+                jobs.add(pool.submit(() -> {
+                    SlowTTS tts = voices.get();
+                    if (tts == null) {
+                        tts = new SlowTTS(voiceName, rate);
+                        TtsPlayer p = new TtsPlayer(false);
+                        tts.setAudioPlayer(p);
+                        voices.set(tts);
+                        players.set(p);
+                        allocated.add(tts);
+                    }
+                    TtsPlayer player = players.get();
+                    tts.setRate(rate);
+                    player.reset();
+                    player.beginCapture();
+                    tts.speak(word);
+                    short[] out = player.endCapture();
+                    if (out != null) {
+                        pcm.put(key(word, rate), out);
+                        sampleRates.put(key(word, rate), player.getAudioFormat().getSampleRate());
+                    }
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> f : jobs)
+            f.get();
+        pool.shutdown();
+        for (SlowTTS tts : allocated)
+            tts.close();
+        long synthMs = (System.nanoTime() - t0) / 1_000_000;
+
+        Path out = Paths.get(PATH);
+        Path tmp = Paths.get(PATH + ".tmp");
+        long bytes = HEADER;
+        try (DataOutputStream os = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            os.writeInt(MAGIC);
+            os.writeInt(VERSION);
+            os.writeLong(signature(voiceName, words));
+            for (int rate : rates) {
+                for (String word : unique) {
+                    String k = key(word, rate);
+                    short[] p = pcm.get(k);
+                    if (p == null)
+                        continue;
+                    byte[] rec = record(k, sampleRates.get(k), p);
+                    os.write(rec);
+                    bytes += rec.length;
+                }
+            }
+        }
+        Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.printf("Rendered %d of %d utterances (%d words x %d rates) on %d threads in %d ms, %d KB%n",
+                pcm.size(), unique.size() * rates.length, unique.size(), rates.length, threads, synthMs, bytes / 1024);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        String voice = args.length > 1 ? args[1] : "kevin16";
+        build(voice, new UISettings().ttsRates, Math.max(1, threads));
+    }
+}
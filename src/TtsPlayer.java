@@ -0,0 +1,213 @@
+import com.sun.speech.freetts.audio.AudioPlayer;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+public class TtsPlayer implements AudioPlayer, AudioMixer.Source {
+    private static final int RING = 1 << 15;
+
+    private final AudioMixer mixer;
+    private final boolean live;
+    private final short[] ring = new short[RING];
+    private volatile long writePos = 0, readPos = 0, flushTo = 0;
+    private volatile boolean cancelled = false;
+    private volatile double step = 16000 / AudioMixer.RATE;
+    private double frac = 0;
+    private AudioFormat format = new AudioFormat(16000f, 16, 1, true, true);
+    private float volume = 1f;
+    private long firstWriteNs = 0;
+    private short[] capture;
+    private int captureLen;
+
+    public TtsPlayer() {
+        this(true);
+    }
+
+    public TtsPlayer(boolean live) {
+        this.live = live;
+        mixer = live ? AudioMixer.shared() : null;
+        if (live)
+            mixer.addSource(this, AudioMixer.TTS);
+    }
+
+    @Override
+    public void mix(float[] out, int frames, float gain) {
+        long r = readPos, w = writePos;
+        if (flushTo > r) {
+            r = flushTo;
+            frac = 0;
+        }
+        double pos = frac, st = step;
+        float g = gain * volume;
+        int i = 0;
+        for (; i < frames && r + (long) pos + 1 < w; i++) {
+            int p = (int) pos;
+            float a = ring[(int) ((r + p) & (RING - 1))];
+            float b = ring[(int) ((r + p + 1) & (RING - 1))];
+            float v = (a + (b - a) * (float) (pos - p)) * g;
+            out[i * 2] += v;
+            out[i * 2 + 1] += v;
+            pos += st;
+        }
+        int consumed = (int) pos;
+        frac = pos - consumed;
+        readPos = r + consumed;
+    }
+
+    @Override
+    public synchronized void setAudioFormat(AudioFormat format) {
+        this.format = format;
+        step = format.getSampleRate() / AudioMixer.RATE;
+    }
+
+    @Override
+    public AudioFormat getAudioFormat() {
+        return format;
+    }
+
+    @Override
+    public void begin(int size) {
+        cancelled = false;
+    }
+
+    @Override
+    public boolean write(byte[] audioData) {
+        return write(audioData, 0, audioData.length);
+    }
+
+    @Override
+    public boolean write(byte[] bytes, int offset, int size) {
+        if (firstWriteNs == 0)
+            firstWriteNs = System.nanoTime();
+        boolean big = format.isBigEndian();
+        boolean out = isOutputEnabled();
+        int n = size / 2;
+        for (int i = 0; i < n && !cancelled; i++) {
+            int hi = big ? bytes[offset + i * 2] : bytes[offset + i * 2 + 1];
+            int lo = big ? bytes[offset + i * 2 + 1] : bytes[offset + i * 2];
+            short v = (short) ((hi << 8) | (lo & 0xff));
+            if (capture != null) {
+                if (captureLen == capture.length)
+                    capture = Arrays.copyOf(capture, capture.length * 2);
+                capture[captureLen++] = v;
+            }
+            if (out)
+                push(v);
+        }
+        return !cancelled;
+    }
+
+    public boolean play(short[] pcm, float sampleRate) {
+        if (firstWriteNs == 0)
+            firstWriteNs = System.nanoTime();
+        if (!isOutputEnabled())
+            return !cancelled;
+        AudioFormat prev = format;
+        setAudioFormat(new AudioFormat(sampleRate, 16, 1, true, true));
+        for (int i = 0; i < pcm.length && !cancelled; i++)
+            push(pcm[i]);
+        boolean done = drain();
+        setAudioFormat(prev);
+        return done;
+    }
+
+    private void push(short v) {
+        while (writePos - Math.max(readPos, flushTo) >= RING - 2 && !cancelled)
+            LockSupport.parkNanos(2_000_000);
+        ring[(int) (writePos & (RING - 1))] = v;
+        writePos++;
+    }
+
+    private boolean isOutputEnabled() {
+        return live && mixer.isEnabled();
+    }
+
+    public void beginCapture() {
+        capture = new short[16384];
+        captureLen = 0;
+    }
+
+    public short[] endCapture() {
+        short[] c = capture;
+        capture = null;
+        return cancelled || c == null || captureLen == 0 ? null : Arrays.copyOf(c, captureLen);
+    }
+
+    @Override
+    public boolean end() {
+        return !cancelled;
+    }
+
+    @Override
+    public boolean drain() {
+        while (isOutputEnabled() && !cancelled && writePos - Math.max(readPos, flushTo) > 1)
+            LockSupport.parkNanos(5_000_000);
+        return !cancelled;
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        flushTo = writePos;
+    }
+
+    @Override
+    public void reset() {
+        cancelled = false;
+    }
+
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void close() {
+        cancel();
+        if (live)
+            mixer.removeSource(this);
+    }
+
+    @Override
+    public float getVolume() {
+        return volume;
+    }
+
+    @Override
+    public void setVolume(float volume) {
+        this.volume = Math.max(0f, Math.min(1f, volume));
+    }
+
+    @Override
+    public long getTime() {
+        return 0;
+    }
+
+    @Override
+    public void resetTime() {
+    }
+
+    @Override
+    public void startFirstSampleTimer() {
+    }
+
+    public void resetFirstWrite() {
+        firstWriteNs = 0;
+    }
+
+    public long firstWriteNs() {
+        return firstWriteNs;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void showMetrics() {
+    }
+}
@@ -0,0 +1,203 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class TtsService {
+    private static final int QUEUE = 2;
+    private static final String WARMUP_TEXT = "ready";
+
+    private static class Request {
+        final String text;
+        final float rate;
+        final int repeats;
+        final long queuedNs = System.nanoTime();
+
+        Request(String text, float rate, int repeats) {
+            this.text = text;
+            this.rate = rate;
+            this.repeats = repeats;
+        }
+    }
+
+    private final String voiceName;
+    private final BlockingQueue<Request> queue = new ArrayBlockingQueue<>(QUEUE);
+    private volatile TtsPlayer player;
+    private volatile TtsCache cache;
+    private final CompletableFuture<Void> warmedUp = new CompletableFuture<>();
+    private SlowTTS tts;
+    private volatile boolean ready = false, failed = false, speaking = false;
+    private Thread worker;
+
+    private volatile long allocMs = -1, warmupMs = -1;
+    private volatile long lastWaitMs, lastFirstAudioMs, lastTotalMs;
+    private volatile int spoken = 0, cancelled = 0;
+    private boolean lastCached;
+
+    public TtsService(String voiceName) {
+        this.voiceName = voiceName;
+    }
+
+    public void setCache(TtsCache cache) {
+        this.cache = cache;
+    }
+
+    public TtsCache cache() {
+        return cache;
+    }
+
+    public String voiceName() {
+        return voiceName;
+    }
+
+    public synchronized CompletableFuture<Void> start() {
+        if (worker == null) {
+            worker = new Thread(this::run, "tts");
+            worker.setDaemon(true);
+            worker.start();
+        }
+        return warmedUp;
+    }
+
+    public void speak(String text, float rate, int repeats) {
+        start();
+        cancel();
+        queue.offer(new Request(text, rate, repeats));
+    }
+
+    public void cancel() {
+        int dropped = 0;
+        while (queue.poll() != null)
+            dropped++;
+        TtsPlayer p = player;
+        if (p != null && speaking && !p.isCancelled()) {
+            p.cancel();
+            dropped++;
+        }
+        cancelled += dropped;
+    }
+
+    private void run() {
+        long t0 = System.nanoTime();
+        try {
+            tts = new SlowTTS(voiceName, 150);
+            allocMs = (System.nanoTime() - t0) / 1_000_000;
+            player = new TtsPlayer();
+            tts.setAudioPlayer(player);
+
+            long t1 = System.nanoTime();
+            player.setVolume(0f);
+            tts.speak(WARMUP_TEXT);
+            player.setVolume(1f);
+            warmupMs = (System.nanoTime() - t1) / 1_000_000;
+            ready = true;
+            if (GameConfig.DEBUG_STATS)
+                System.out.printf("[tts] voice %s allocated in %d ms, warm-up %d ms%n", voiceName, allocMs, warmupMs);
+        } catch (Throwable e) {
+            failed = true;
+            queue.clear();
+            System.err.println("TTS unavailable: " + e.getMessage());
+            return;
+        } finally {
+            warmedUp.complete(null);
+        }
+
+        while (true) {
+            Request r;
+            try {
+                r = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (r == null)
+                continue;
+            long start = System.nanoTime();
+            speaking = true;
+            player.reset();
+            player.resetFirstWrite();
+            tts.setRate(r.rate);
+            boolean done = true;
+            for (int i = 0; i < r.repeats && done && queue.isEmpty(); i++) {
+                if (i > 0)
+                    done = pause(800);
+                done = done && say(r.text, r.rate) && !player.isCancelled();
+            }
+            speaking = false;
+            long end = System.nanoTime();
+            lastWaitMs = (start - r.queuedNs) / 1_000_000;
+            lastFirstAudioMs = player.firstWriteNs() == 0 ? -1 : (player.firstWriteNs() - start) / 1_000_000;
+            lastTotalMs = (end - start) / 1_000_000;
+            spoken++;
+            if (GameConfig.DEBUG_STATS)
+                System.out.printf("[tts] \"%s\" wait %d ms, first audio %d ms, total %d ms%s%s%n", r.text, lastWaitMs,
+                        lastFirstAudioMs, lastTotalMs, lastCached ? " (cached)" : "", done ? "" : " (cancelled)");
+        }
+        tts.close();
+    }
+
+    private boolean say(String text, float rate) {
+        TtsCache c = cache;
+        short[] pcm = c != null ? c.get(text, rate) : null;
+        lastCached = pcm != null;
+        if (pcm != null)
+            return player.play(pcm, c.sampleRate(text, rate));
+
+        if (c != null)
+            player.beginCapture();
+        boolean ok = tts.speak(text);
+        short[] captured = c != null ? player.endCapture() : null;
+        if (ok && captured != null)
+            c.put(text, rate, captured, player.getAudioFormat().getSampleRate());
+        return ok;
+    }
+
+    private boolean pause(long ms) {
+        long until = System.currentTimeMillis() + ms;
+        while (System.currentTimeMillis() < until) {
+            if (player.isCancelled() || !queue.isEmpty())
+                return false;
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public long allocMs() {
+        return allocMs;
+    }
+
+    public long warmupMs() {
+        return warmupMs;
+    }
+
+    public long lastWaitMs() {
+        return lastWaitMs;
+    }
+
+    public long lastFirstAudioMs() {
+        return lastFirstAudioMs;
+    }
+
+    public long lastTotalMs() {
+        return lastTotalMs;
+    }
+
+    public int spoken() {
+        return spoken;
+    }
+
+    public int cancelled() {
+        return cancelled;
+    }
+}
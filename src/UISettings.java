@@ -1,7 +1,6 @@
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.awt.*;
-import javax.imageio.ImageIO;
+import java.util.concurrent.CompletableFuture;
 
 public class UISettings {
     public Font fontSmall12, fontSmall11, fontBold16, fontBold20, fontPlain16, fontPlain6, fontTitle48;
@@ -45,14 +44,23 @@ public class UISettings {
     public BufferedImage arrowLeftFrame;
     public BufferedImage arrowRightFrame;
 
+    public final TextLayoutCache wordLayouts = new TextLayoutCache(256);
+    public final TtsService tts = new TtsService("kevin16");
+
     public UISettings() {
-        initFonts();
-        initKeySprites();
+    }
+
+    public CompletableFuture<Void> loadAssets(AssetLoader loader) {
+        if (ttsEnabled)
+            loader.track("speech", false, tts.start());
+        return CompletableFuture.allOf(
+                loader.run("fonts", true, this::initFonts),
+                loader.run("prompt keys", true, this::initKeySprites));
     }
 
     public void initFonts() {
         try {
-            Font mcFont = Font.createFont(Font.TRUETYPE_FONT, new File("./res/fonts/Minecraft-TenTH.ttf"));
+            Font mcFont = Font.createFont(Font.TRUETYPE_FONT, AssetPack.open("./res/fonts/Minecraft-TenTH.ttf"));
             GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
             ge.registerFont(mcFont);
             fontSmall12 = mcFont.deriveFont(Font.PLAIN, 20f);
@@ -68,7 +76,7 @@ public class UISettings {
 
     public void initKeySprites() {
         try {
-            spaceSheet = ImageIO.read(new File("./res/keys/SPACE.png"));
+            spaceSheet = AssetPack.image("./res/keys/SPACE.png");
             if (spaceSheet != null) {
                 int fw = spaceSheet.getWidth() / 2;
                 int fh = spaceSheet.getHeight();
@@ -79,7 +87,7 @@ public class UISettings {
         }
 
         try {
-            backspaceSheet = ImageIO.read(new File("./res/keys/BACKSPACE.png"));
+            backspaceSheet = AssetPack.image("./res/keys/BACKSPACE.png");
             if (backspaceSheet != null) {
                 int fw = backspaceSheet.getWidth() / 2;
                 int fh = backspaceSheet.getHeight();
@@ -90,7 +98,7 @@ public class UISettings {
         }
 
         try {
-            arrowLeftSheet = ImageIO.read(new File("./res/keys/ARROWLEFT.png"));
+            arrowLeftSheet = AssetPack.image("./res/keys/ARROWLEFT.png");
             if (arrowLeftSheet != null) {
                 int fw = arrowLeftSheet.getWidth() / 2;
                 int fh = arrowLeftSheet.getHeight();
@@ -101,7 +109,7 @@ public class UISettings {
         }
 
         try {
-            arrowRightSheet = ImageIO.read(new File("./res/keys/ARROWRIGHT.png"));
+            arrowRightSheet = AssetPack.image("./res/keys/ARROWRIGHT.png");
             if (arrowRightSheet != null) {
                 int fw = arrowRightSheet.getWidth() / 2;
                 int fh = arrowRightSheet.getHeight();
@@ -110,6 +118,16 @@ public class UISettings {
             }
         } catch (Exception ignored) {
         }
+
+        TextureAtlas atlas = TextureAtlas.shared();
+        for (BufferedImage img : new BufferedImage[] {
+                spaceFrameNormal, spaceFramePressed,
+                backspaceFrameNormal, backspaceFramePressed,
+                arrowLeftNormal, arrowLeftPressed,
+                arrowRightNormal, arrowRightPressed }) {
+            if (img != null)
+                atlas.add(img);
+        }
     }
 
     public void layoutSettingsRects(int width, int height) {
@@ -226,23 +244,24 @@ public class UISettings {
         return masterVolume > 0;
     }
 
+    public float sfxGain() {
+        return (sfxVolume / 100f) * (masterVolume / 100f);
+    }
+
+    public float musicGain() {
+        return (musicVolume / 100f) * (masterVolume / 100f);
+    }
+
+    public float ttsGain() {
+        return (ttsVolume / 100f) * (masterVolume / 100f);
+    }
+
     public void applyVolumeToPools(GameState gameState) {
         try {
-            float masterVol = masterVolume / 100f;
-            float sfxVol = (sfxVolume / 100f) * masterVol;
-            float musicVol = (musicVolume / 100f) * masterVol;
-
-            gameState.sStart.setVolume(sfxVol);
-            gameState.sType.setVolume(sfxVol);
-            gameState.sErr.setVolume(sfxVol);
-            gameState.sClick.setVolume(sfxVol);
-            gameState.sSlash.setVolume(sfxVol);
-            gameState.sHit.setVolume(sfxVol);
-            gameState.sDeath.setVolume(sfxVol);
-
-            if (gameState.bgMusic != null) {
-                gameState.bgMusic.setVolume(musicVol);
-            }
+            AudioMixer mixer = AudioMixer.shared();
+            mixer.setBusGain(AudioMixer.SFX, sfxGain());
+            mixer.setBusGain(AudioMixer.MUSIC, musicGain());
+            mixer.setBusGain(AudioMixer.TTS, ttsGain());
         } catch (Throwable ignored) {
         }
     }
@@ -259,9 +278,16 @@ public class UISettings {
         return null;
     }
 
+    public void prefetchNeighbours(int idx) {
+        int n = CHAR_PATHS.length;
+        CharacterPack.preload(CHAR_PATHS[(idx + 1) % n]);
+        CharacterPack.preload(CHAR_PATHS[(idx + n - 1) % n]);
+    }
+
     public void updatePreviewPack() {
+        prefetchNeighbours(selectedCharIdx);
         CharacterPack.Config cfg = configFor(selectedCharIdx);
-        previewPack = new CharacterPack(CHAR_PATHS[selectedCharIdx], 0, 0, false, cfg, CHAR_BASELINE[selectedCharIdx]);
+        previewPack = new CharacterPack(CHAR_PATHS[selectedCharIdx], 0, 0, false, cfg, CHAR_BASELINE[selectedCharIdx], 2);
         previewPack.setAnim(CharacterPack.Anim.IDLE);
     }
 
@@ -270,37 +296,16 @@ public class UISettings {
         if (ttsSpeedLevel == level)
             return;
         ttsSpeedLevel = level;
-        if (ttsEnabled) {
-            new Thread(() -> {
-                try {
-                    SlowTTS tts = new SlowTTS("kevin16", ttsRates[ttsSpeedLevel]);
-                    tts.speak("Hello");
-                    tts.close();
-                } catch (Exception ignored) {
-                }
-            }).start();
-        }
+        if (ttsEnabled)
+            tts.speak("Hello", ttsRates[ttsSpeedLevel], 1);
+    }
+
+    public void prefetchWordInfo(WordEntry current) {
+        wordLayouts.prefetch(current, fontBold20, fontPlain16);
     }
 
     public void speakCurrentWord(WordEntry current) {
-        if (ttsEnabled && current != null) {
-            new Thread(() -> {
-                try {
-                    SlowTTS tts = new SlowTTS("kevin16", ttsRates[ttsSpeedLevel]);
-                    tts.speak(current.word);
-
-                    if (ttsRepeatEnabled) {
-                        try {
-                            Thread.sleep(800);
-                        } catch (InterruptedException ignored) {
-                        }
-                        tts.speak(current.word);
-                    }
-
-                    tts.close();
-                } catch (Exception ignored) {
-                }
-            }).start();
-        }
+        if (ttsEnabled && current != null)
+            tts.speak(current.word, ttsRates[ttsSpeedLevel], ttsRepeatEnabled ? 2 : 1);
     }
 }
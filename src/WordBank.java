@@ -1,38 +1,36 @@
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
 public class WordBank {
     public static List<WordEntry> loadWordBank() {
         List<WordEntry> list = new ArrayList<>();
-        File f = new File(GameConfig.WORDS_TXT_PATH);
-        if (f.exists()) {
-            try (BufferedReader br = new BufferedReader(
-                    new InputStreamReader(new FileInputStream(f), StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    line = line.trim();
-                    if (line.isEmpty() || line.startsWith("#") || line.startsWith("//"))
-                        continue;
-                    String[] parts = line.split("\\|");
-                    if (parts.length < 3)
-                        continue;
-                    String rawWord = parts[0].trim();
-                    String disp = rawWord;
-                    String wordUP = rawWord.toUpperCase(Locale.US).replaceAll("[^A-Z0-9]", "");
-                    if (wordUP.isEmpty())
-                        continue;
-                    String pronun = parts[1].trim();
-                    String meaning = parts[2].trim();
-                    list.add(new WordEntry(wordUP, disp, pronun, meaning));
+        File txt = new File(GameConfig.WORDS_TXT_PATH);
+        File bin = new File(GameConfig.WORDS_BIN_PATH);
+        if (bin.isFile() && (!txt.isFile() || bin.lastModified() >= txt.lastModified())) {
+            try {
+                list = CompiledWordBank.open(bin.getPath());
+            } catch (IOException e) {
+                System.err.println("Could not open compiled word bank: " + e.getMessage());
+            }
+        }
+        if (list.isEmpty() && AssetPack.exists(GameConfig.WORDS_TXT_PATH)) {
+            try {
+                list = parse(GameConfig.WORDS_TXT_PATH);
+            } catch (IOException e) {
+                System.err.println("Could not read word bank: " + e.getMessage());
+            }
+            if (!list.isEmpty() && txt.isFile()) {
+                try {
+                    CompiledWordBank.compile(list, bin.getPath());
+                } catch (IOException e) {
+                    System.err.println("Could not compile word bank: " + e.getMessage());
                 }
-            } catch (Exception ignored) {
             }
         }
 
         if (list.isEmpty()) {
+            list = new ArrayList<>();
             String[][] rows = new String[][] {
                     { "TIME", "ไทม์", "เวลา" },
                     { "LIGHT", "ไลท์", "แสง" },
@@ -71,4 +69,13 @@ public class WordBank {
         }
         return list;
     }
-}
\ No newline at end of file
+
+    public static List<WordEntry> parse(String path) throws IOException {
+        WordImporter.Result r = WordImporter.importFile(path);
+        for (int i = 0; i < Math.min(10, r.errors.size()); i++)
+            System.err.println(path + ": " + r.errors.get(i));
+        if (r.errors.size() > 10)
+            System.err.println(path + ": " + (r.errors.size() - 10) + " more malformed lines skipped");
+        return r.words;
+    }
+}
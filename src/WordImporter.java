@@ -0,0 +1,298 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class WordImporter {
+    private static final int CHUNK = 256 * 1024;
+    private static final String[] PRONUN_COLUMNS = { "pronunciation", "pronun", "pron", "reading" };
+    private static final String[] MEANING_COLUMNS = { "meaning", "meanings", "translation", "definition" };
+
+    public static class Result {
+        public final List<WordEntry> words;
+        public final List<String> errors;
+        public final int lines, duplicates;
+        public final long bytes, nanos;
+
+        Result(List<WordEntry> words, List<String> errors, int lines, int duplicates, long bytes, long nanos) {
+            this.words = words;
+            this.errors = errors;
+            this.lines = lines;
+            this.duplicates = duplicates;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        public double mbPerSec() {
+            return bytes / 1e6 / Math.max(1e-9, nanos / 1e9);
+        }
+    }
+
+    private static class Part {
+        final List<WordEntry> entries = new ArrayList<>();
+        long[] keys = new long[64];
+        final List<String> errors = new ArrayList<>();
+        final List<Integer> errorLines = new ArrayList<>();
+        int lines = 0;
+
+        void add(WordEntry e, long key) {
+            int n = entries.size();
+            if (n == keys.length)
+                keys = Arrays.copyOf(keys, n * 2);
+            keys[n] = key;
+            entries.add(e);
+        }
+
+        void error(int line, String msg) {
+            errorLines.add(line);
+            errors.add(msg);
+        }
+    }
+
+    public static Result importFile(String path) throws IOException {
+        return importFile(path, ForkJoinPool.commonPool());
+    }
+
+    public static Result importFile(String path, ForkJoinPool pool) throws IOException {
+        File f = new File(path);
+        ByteBuffer data;
+        if (f.isFile()) {
+            try (FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+                data = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            }
+        } else {
+            try (InputStream in = AssetPack.open(path)) {
+                data = ByteBuffer.wrap(in.readAllBytes());
+            }
+        }
+        return importBytes(data, delimiter(path, data), pool);
+    }
+
+    public static Result importBytes(ByteBuffer data, byte delim, ForkJoinPool pool) {
+        long t0 = System.nanoTime();
+        int len = data.limit();
+        int start = len >= 3 && data.get(0) == (byte) 0xEF && data.get(1) == (byte) 0xBB && data.get(2) == (byte) 0xBF ? 3 : 0;
+        List<Part> parts = pool.invoke(new Parse(data, start, len, delim, true));
+
+        int total = 0;
+        for (Part p : parts)
+            total += p.entries.size();
+        int cap = Integer.highestOneBit(Math.max(16, total * 2 - 1)) << 1;
+        long[] slotKeys = new long[cap];
+        int[] slotIndex = new int[cap];
+        int mask = cap - 1;
+
+        List<WordEntry> words = new ArrayList<>(total);
+        List<String> errors = new ArrayList<>();
+        int lineBase = 0, duplicates = 0;
+        for (Part p : parts) {
+            for (int i = 0; i < p.errors.size(); i++)
+                errors.add("line " + (lineBase + p.errorLines.get(i)) + ": " + p.errors.get(i));
+            for (int i = 0; i < p.entries.size(); i++) {
+                WordEntry e = p.entries.get(i);
+                long key = p.keys[i];
+                int slot = (int) (key ^ (key >>> 29)) & mask;
+                int found = -1;
+                while (slotIndex[slot] != 0) {
+                    int j = slotIndex[slot] - 1;
+                    if (slotKeys[slot] == key && words.get(j).word.equals(e.word)) {
+                        found = j;
+                        break;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                if (found < 0) {
+                    slotKeys[slot] = key;
+                    slotIndex[slot] = words.size() + 1;
+                    words.add(e);
+                } else {
+                    duplicates++;
+                    words.set(found, merge(words.get(found), e));
+                }
+            }
+            lineBase += p.lines;
+        }
+        return new Result(words, errors, lineBase, duplicates, len - start, System.nanoTime() - t0);
+    }
+
+    private static WordEntry merge(WordEntry a, WordEntry b) {
+        String pronun = a.pronun.isEmpty() ? b.pronun : a.pronun;
+        String meaning = a.meaning;
+        if (!b.meaning.isEmpty() && !(" / " + a.meaning + " / ").contains(" / " + b.meaning + " / "))
+            meaning = a.meaning.isEmpty() ? b.meaning : a.meaning + " / " + b.meaning;
+        return pronun == a.pronun && meaning == a.meaning ? a : new WordEntry(a.word, a.display, pronun, meaning);
+    }
+
+    private static class Parse extends RecursiveTask<List<Part>> {
+        private static final long serialVersionUID = 1L;
+
+        final ByteBuffer data;
+        final int from, to;
+        final byte delim;
+        final boolean first;
+
+        Parse(ByteBuffer data, int from, int to, byte delim, boolean first) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+            this.delim = delim;
+            this.first = first;
+        }
+
+        @Override
+        protected List<Part> compute() {
+            if (to - from > CHUNK) {
+                int mid = lineStart(data, from + (to - from) / 2, to);
+                if (mid < to) {
+                    Parse left = new Parse(data, from, mid, delim, first);
+                    left.fork();
+                    List<Part> right = new Parse(data, mid, to, delim, false).compute();
+                    List<Part> out = left.join();
+                    out.addAll(right);
+                    return out;
+                }
+            }
+            byte[] buf = new byte[to - from];
+            data.get(from, buf);
+            List<Part> out = new ArrayList<>(1);
+            out.add(parse(buf, delim, first));
+            return out;
+        }
+    }
+
+    private static int lineStart(ByteBuffer data, int pos, int limit) {
+        while (pos < limit && data.get(pos - 1) != '\n')
+            pos++;
+        return pos;
+    }
+
+    private static Part parse(byte[] buf, byte delim, boolean first) {
+        Part part = new Part();
+        int[] fs = new int[8], fe = new int[8];
+        byte[] key = new byte[64];
+        int pos = 0, n = buf.length;
+        boolean header = first;
+        while (pos < n) {
+            int s = pos, e = pos;
+            while (e < n && buf[e] != '\n')
+                e++;
+            pos = e + 1;
+            int line = ++part.lines;
+            while (s < e && (buf[s] & 0xff) <= ' ')
+                s++;
+            while (e > s && (buf[e - 1] & 0xff) <= ' ')
+                e--;
+            if (s == e || buf[s] == '#' || (buf[s] == '/' && s + 1 < e && buf[s + 1] == '/'))
+                continue;
+
+            int count = 0;
+            int p = s;
+            while (p <= e && count < fs.length) {
+                if (delim != '|' && delim != '\t' && p < e && buf[p] == '"') {
+                    int q = p + 1;
+                    while (q < e && !(buf[q] == '"' && (q + 1 >= e || buf[q + 1] != '"')))
+                        q += buf[q] == '"' ? 2 : 1;
+                    fs[count] = p + 1;
+                    fe[count++] = q;
+                    p = q + 1;
+                    while (p < e && buf[p] != delim)
+                        p++;
+                } else {
+                    int q = p;
+                    while (q < e && buf[q] != delim)
+                        q++;
+                    fs[count] = p;
+                    fe[count++] = q;
+                    p = q;
+                }
+                p++;
+            }
+            if (count < 3) {
+                part.error(line, "expected word" + (char) delim + "pronunciation" + (char) delim
+                        + "meaning, found " + count + " field" + (count == 1 ? "" : "s"));
+                continue;
+            }
+
+            int klen = 0;
+            if (fe[0] - fs[0] > key.length)
+                key = new byte[fe[0] - fs[0]];
+            long h = 0xcbf29ce484222325L;
+            for (int i = fs[0]; i < fe[0]; i++) {
+                int c = buf[i];
+                if (c >= 'a' && c <= 'z')
+                    c -= 32;
+                if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+                    key[klen++] = (byte) c;
+                    h = (h ^ c) * 0x100000001b3L;
+                }
+            }
+            if (header) {
+                header = false;
+                if (klen == 4 && key[0] == 'W' && key[1] == 'O' && key[2] == 'R' && key[3] == 'D'
+                        && isColumn(buf, fs[1], fe[1], PRONUN_COLUMNS) && isColumn(buf, fs[2], fe[2], MEANING_COLUMNS))
+                    continue;
+            }
+            if (klen == 0) {
+                part.error(line, "word has no letters or digits");
+                continue;
+            }
+            WordEntry entry = new WordEntry(new String(key, 0, klen, StandardCharsets.ISO_8859_1),
+                    field(buf, fs[0], fe[0]), field(buf, fs[1], fe[1]), field(buf, fs[2], fe[2]));
+            part.add(entry, h);
+        }
+        return part;
+    }
+
+    private static boolean isColumn(byte[] buf, int s, int e, String[] names) {
+        String v = field(buf, s, e);
+        for (String name : names)
+            if (v.equalsIgnoreCase(name))
+                return true;
+        return false;
+    }
+
+    private static String field(byte[] buf, int s, int e) {
+        while (s < e && (buf[s] & 0xff) <= ' ')
+            s++;
+        while (e > s && (buf[e - 1] & 0xff) <= ' ')
+            e--;
+        String v = new String(buf, s, e - s, StandardCharsets.UTF_8);
+        return v.indexOf("\"\"") < 0 ? v : v.replace("\"\"", "\"");
+    }
+
+    static byte delimiter(String path, ByteBuffer data) {
+        String name = path.toLowerCase();
+        if (name.endsWith(".tsv"))
+            return '\t';
+        if (name.endsWith(".csv"))
+            return ',';
+        int tabs = 0, pipes = 0, commas = 0, semis = 0;
+        int lines = 0;
+        for (int i = 0; i < data.limit() && lines < 20; i++) {
+            byte b = data.get(i);
+            if (b == '\n')
+                lines++;
+            else if (b == '|')
+                pipes++;
+            else if (b == '\t')
+                tabs++;
+            else if (b == ';')
+                semis++;
+            else if (b == ',')
+                commas++;
+        }
+        if (pipes > 0)
+            return '|';
+        if (tabs > 0)
+            return '\t';
+        return semis > commas ? (byte) ';' : (byte) ',';
+    }
+}
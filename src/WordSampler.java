@@ -0,0 +1,124 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class WordSampler {
+    public static final int BANDS = 10;
+    private static final String LEFT_HAND = "12345QWERTASDFGZXCVB";
+    private static final String[] ROWS = { "1234567890", "QWERTYUIOP", "ASDFGHJKL", "ZXCVBNM" };
+    private static final String BY_FREQUENCY = "ETAOINSHRDLCUMWFGYPBVKJXQZ";
+    private static final float[] RARITY = new float[128];
+    private static final byte[] HAND = new byte[128];
+    private static final byte[] ROW = new byte[128];
+
+    static {
+        Arrays.fill(RARITY, 6f);
+        for (int i = 0; i < BY_FREQUENCY.length(); i++)
+            RARITY[BY_FREQUENCY.charAt(i)] = 1f + i * 0.25f;
+        for (int r = 0; r < ROWS.length; r++)
+            for (char c : ROWS[r].toCharArray()) {
+                ROW[c] = (byte) r;
+                HAND[c] = (byte) (LEFT_HAND.indexOf(c) >= 0 ? 0 : 1);
+            }
+    }
+
+    private final List<WordEntry> words;
+    private final Random rng;
+    private final int[] order;
+    private final int[] bandStart = new int[BANDS + 1];
+    private final int[] bagPos = new int[BANDS];
+    private int last = -1;
+
+    public WordSampler(List<WordEntry> words, Random rng) {
+        this.words = words;
+        this.rng = rng;
+        int n = words.size();
+        order = words instanceof CompiledWordBank bank ? bank.difficultyOrder() : difficultyOrder(words);
+        for (int b = 0; b <= BANDS; b++)
+            bandStart[b] = (int) ((long) b * n / BANDS);
+        for (int b = 0; b < BANDS; b++)
+            bagPos[b] = bandStart[b];
+    }
+
+    public static int[] difficultyOrder(List<WordEntry> words) {
+        int n = words.size();
+        long[] keyed = new long[n];
+        for (int i = 0; i < n; i++)
+            keyed[i] = (long) Float.floatToIntBits(score(words.get(i).word)) << 32 | i;
+        Arrays.sort(keyed);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++)
+            order[i] = (int) keyed[i];
+        return order;
+    }
+
+    public static float score(CharSequence word) {
+        int n = word.length();
+        float rarity = 0;
+        int alternations = 0, rowSteps = 0;
+        for (int i = 0; i < n; i++) {
+            char c = word.charAt(i);
+            if (c >= 128)
+                continue;
+            rarity += RARITY[c];
+            if (i > 0 && word.charAt(i - 1) < 128) {
+                char p = word.charAt(i - 1);
+                if (HAND[c] != HAND[p])
+                    alternations++;
+                rowSteps += Math.abs(ROW[c] - ROW[p]);
+            }
+        }
+        return n + rarity * 0.25f + alternations * 0.5f + rowSteps * 0.75f;
+    }
+
+    public boolean isFor(List<WordEntry> list) {
+        return words == list;
+    }
+
+    public int size() {
+        return order.length;
+    }
+
+    public synchronized WordEntry draw(float difficulty) {
+        float d = Math.max(0f, Math.min(1f, difficulty));
+        int center = Math.round(d * (BANDS - 1));
+        return draw(Math.max(0, center - 1), Math.min(BANDS - 1, center + 1));
+    }
+
+    public synchronized WordEntry draw(int loBand, int hiBand) {
+        if (order.length == 0)
+            return null;
+        int lo = Math.max(0, loBand), hi = Math.min(BANDS - 1, hiBand);
+        while (bandStart[hi + 1] - bandStart[lo] < 2 && (lo > 0 || hi < BANDS - 1)) {
+            lo = Math.max(0, lo - 1);
+            hi = Math.min(BANDS - 1, hi + 1);
+        }
+        int pick = bandStart[lo] + rng.nextInt(bandStart[hi + 1] - bandStart[lo]);
+        int band = lo;
+        while (bandStart[band + 1] <= pick)
+            band++;
+        if (bandStart[band + 1] - bandStart[band] == 1 && order[bandStart[band]] == last
+                && bandStart[hi + 1] - bandStart[lo] > 1) {
+            do
+                band = band == hi ? lo : band + 1;
+            while (bandStart[band] == bandStart[band + 1]);
+        }
+
+        int s = bandStart[band], e = bandStart[band + 1];
+        int p = bagPos[band];
+        if (p == e)
+            p = s;
+        swap(p, p + rng.nextInt(e - p));
+        if (order[p] == last && e - p > 1)
+            swap(p, p + 1 + rng.nextInt(e - p - 1));
+        bagPos[band] = p + 1;
+        last = order[p];
+        return words.get(last);
+    }
+
+    private void swap(int a, int b) {
+        int t = order[a];
+        order[a] = order[b];
+        order[b] = t;
+    }
+}